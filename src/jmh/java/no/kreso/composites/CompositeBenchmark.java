@@ -0,0 +1,127 @@
+package no.kreso.composites;
+
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import no.kreso.operations.TimeOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of the operations on Composite. These are mostly interesting together with the allocation profiler
+ * (-prof gc), which is enabled by default in the jmh profile. The temporal cases run the same operations on the same
+ * bounds as their counterparts that go through Operations, to show the effect of comparing the keys of the bounds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompositeBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private static class Period extends Composite<LocalDate, Period> {
+
+        private static final Operations<LocalDate> operations = OperationsDefault.unbound();
+
+        private Period(LocalDate start, LocalDate end) {
+            super(start, end, operations);
+        }
+
+        @Override
+        Period newInstance(LocalDate start, LocalDate end) {
+            return new Period(start, end);
+        }
+    }
+
+    private static class Stamp extends Composite<OffsetDateTime, Stamp> {
+
+        private static final Operations<OffsetDateTime> operations = TimeOperations.offsetDateTime();
+
+        private Stamp(OffsetDateTime start, OffsetDateTime end) {
+            super(start, end, operations);
+        }
+
+        @Override
+        Stamp newInstance(OffsetDateTime start, OffsetDateTime end) {
+            return new Stamp(start, end);
+        }
+    }
+
+    private Period[] periods;
+    private LocalDateInterval[] dates;
+    private Stamp[] stamps;
+    private OffsetDateTimeInterval[] dateTimes;
+    private int index;
+
+    @Setup
+    public void setup() {
+        periods = new Period[SIZE];
+        dates = new LocalDateInterval[SIZE];
+        stamps = new Stamp[SIZE];
+        dateTimes = new OffsetDateTimeInterval[SIZE];
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < SIZE; i++) {
+            LocalDate start = random.nextInt(10) == 0 ? null : origin.plusDays(random.nextInt(365));
+            LocalDate end = random.nextInt(10) == 0 ? null : origin.plusDays(random.nextInt(365));
+            periods[i] = new Period(start, end);
+            dates[i] = LocalDateInterval.of(start, end);
+            OffsetDateTime from = start == null ? null : start.atTime(random.nextInt(24), 0).atOffset(ZoneOffset.UTC);
+            OffsetDateTime to = end == null ? null : end.atTime(random.nextInt(24), 0).atOffset(ZoneOffset.ofHours(1));
+            stamps[i] = new Stamp(from, to);
+            dateTimes[i] = OffsetDateTimeInterval.of(from, to);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Period intersection() {
+        return periods[next()].intersection(periods[next()]);
+    }
+
+    @Benchmark
+    public Period union() {
+        return periods[next()].union(periods[next()]);
+    }
+
+    @Benchmark
+    public LocalDateInterval localDateIntersection() {
+        return dates[next()].intersection(dates[next()]);
+    }
+
+    @Benchmark
+    public LocalDateInterval localDateUnion() {
+        return dates[next()].union(dates[next()]);
+    }
+
+    @Benchmark
+    public Stamp offsetIntersection() {
+        return stamps[next()].intersection(stamps[next()]);
+    }
+
+    @Benchmark
+    public OffsetDateTimeInterval offsetDateTimeIntersection() {
+        return dateTimes[next()].intersection(dateTimes[next()]);
+    }
+}
@@ -0,0 +1,100 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+
+/**
+ * Benchmarks of point queries against the pointer-based IntervalTree, the array-based ImplicitIntervalTree and its
+ * primitive counterpart LongImplicitIntervalTree, built from the same short intervals. Run with
+ * {@code -Djmh.args="IndexBenchmark -p size=10000000"} for the large case, which needs a few gigabytes of heap. The
+ * points are boxed and the consumers created up front, so that the allocation profiler only reports what the queries
+ * allocate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private IntervalTree<Integer, Interval<Integer>> tree;
+    private ImplicitIntervalTree<Integer, Interval<Integer>> implicit;
+    private LongImplicitIntervalTree primitive;
+    private Integer[] points;
+    private int index;
+    private Consumer<Interval<Integer>> consumer;
+    private LongImplicitIntervalTree.IntervalConsumer longConsumer;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        consumer = blackhole::consume;
+        longConsumer = (position, start, end) -> blackhole.consume(position);
+        Operations<Integer> operations = OperationsDefault.unbound();
+        Random random = new Random(42);
+        List<Interval<Integer>> intervals = new ArrayList<>(size);
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        tree = new IntervalTree<>(operations);
+        for (int i = 0; i < size; i++) {
+            int start = random.nextInt(Integer.MAX_VALUE / 2);
+            Interval<Integer> interval = IntervalDefault.of(start, start + random.nextInt(10_000));
+            intervals.add(interval);
+            tree.insert(interval);
+            starts[i] = interval.start();
+            ends[i] = interval.end();
+        }
+        implicit = ImplicitIntervalTree.build(intervals, operations);
+        primitive = LongImplicitIntervalTree.build(starts, ends);
+        points = new Integer[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            points[i] = random.nextInt(Integer.MAX_VALUE / 2);
+        }
+    }
+
+    @Benchmark
+    public void intervalTree() {
+        tree.forEachContaining(nextPoint(), consumer);
+    }
+
+    @Benchmark
+    public void implicitIntervalTree() {
+        implicit.forEachContaining(nextPoint(), consumer);
+    }
+
+    @Benchmark
+    public void longImplicitIntervalTree() {
+        primitive.forEachContaining(nextPoint(), longConsumer);
+    }
+
+    private Integer nextPoint() {
+        index = (index + 1) & (QUERIES - 1);
+        return points[index];
+    }
+}
@@ -0,0 +1,112 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.OperationsDefault.NullInterpretation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of every method of OperationsDefault, for every combination of null interpretations and for bounds that
+ * are never, sometimes or always null. The operands are drawn from a pre-generated array, so that the JIT can not fold
+ * the results into constants.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperationsBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"NEGATIVE_INFINITY", "POSITIVE_INFINITY"})
+    public NullInterpretation lower;
+
+    @Param({"NEGATIVE_INFINITY", "POSITIVE_INFINITY"})
+    public NullInterpretation upper;
+
+    @Param({"NON_NULL", "MIXED", "NULL"})
+    public Bounds bounds;
+
+    private Operations<LocalDate> operations;
+    private Interval<LocalDate>[] intervals;
+    private int index;
+
+    public enum Bounds {
+        NON_NULL(0.0),
+        MIXED(0.25),
+        NULL(1.0);
+
+        private final double nullProbability;
+
+        Bounds(double nullProbability) {
+            this.nullProbability = nullProbability;
+        }
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        operations = new OperationsDefault<>(Comparator.<LocalDate>naturalOrder(), lower, upper);
+        intervals = new Interval[SIZE];
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < SIZE; i++) {
+            LocalDate start = random.nextDouble() < bounds.nullProbability
+                    ? null
+                    : origin.plusDays(random.nextInt(365));
+            LocalDate end = random.nextDouble() < bounds.nullProbability
+                    ? null
+                    : origin.plusDays(random.nextInt(365));
+            intervals[i] = IntervalDefault.of(start, end);
+        }
+    }
+
+    private Interval<LocalDate> next() {
+        index = (index + 1) & (SIZE - 1);
+        return intervals[index];
+    }
+
+    @Benchmark
+    public boolean subsetOf() {
+        return operations.subsetOf(next(), next());
+    }
+
+    @Benchmark
+    public boolean isEmpty() {
+        return operations.isEmpty(next());
+    }
+
+    @Benchmark
+    public Interval<LocalDate> intersection() {
+        return operations.intersection(next(), next());
+    }
+
+    @Benchmark
+    public Interval<LocalDate> union() {
+        return operations.union(next(), next());
+    }
+
+    @Benchmark
+    public Interval<LocalDate> validate() {
+        Interval<LocalDate> interval = next();
+        return operations.validate(interval.start(), interval.end());
+    }
+}
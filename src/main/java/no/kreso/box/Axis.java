@@ -0,0 +1,13 @@
+package no.kreso.box;
+
+import no.kreso.operations.Operations;
+
+
+/**
+ * One axis of a box, with the Operations that compare its bounds. Serves as a typed key to the interval of a box along
+ * the axis, see {@link Box#interval(Axis)}.
+ *
+ * @param index Position of the axis in the boxes, starting at 0.
+ */
+public record Axis<T>(int index, Operations<T> operations) {
+}
@@ -0,0 +1,17 @@
+package no.kreso.box;
+
+import no.kreso.interval.Interval;
+
+/**
+ * Interface for storing one interval per axis, for example time by price by quantity. The axes may have different types.
+ */
+public interface Box {
+    int dimensions();
+
+    Interval<?> interval(int axis);
+
+    @SuppressWarnings("unchecked")
+    default <T> Interval<T> interval(Axis<T> axis) {
+        return (Interval<T>) interval(axis.index());
+    }
+}
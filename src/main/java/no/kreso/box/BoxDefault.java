@@ -0,0 +1,44 @@
+package no.kreso.box;
+
+import no.kreso.interval.Interval;
+
+import java.util.Arrays;
+
+
+public final class BoxDefault implements Box {
+
+    private final Interval<?>[] intervals;
+
+    private BoxDefault(Interval<?>[] intervals) {
+        this.intervals = intervals;
+    }
+
+    public static Box of(Interval<?>... intervals) {
+        return new BoxDefault(intervals.clone());
+    }
+
+    @Override
+    public int dimensions() {
+        return intervals.length;
+    }
+
+    @Override
+    public Interval<?> interval(int axis) {
+        return intervals[axis];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BoxDefault other && Arrays.equals(intervals, other.intervals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(intervals);
+    }
+
+    @Override
+    public String toString() {
+        return "Box" + Arrays.toString(intervals);
+    }
+}
@@ -0,0 +1,155 @@
+package no.kreso.box;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+
+/**
+ * Operations on boxes, done axis by axis with the Operations of every axis. A box is empty if it is empty along any
+ * axis, since it then contains no points.
+ */
+public final class BoxOperations {
+
+    private final Axis<?>[] axes;
+
+    /**
+     * @param axes The axes of the boxes, in order of their index.
+     */
+    public BoxOperations(Axis<?>... axes) {
+        for (int i = 0; i < axes.length; i++) {
+            if (axes[i].index() != i) {
+                throw new IllegalArgumentException("Axis at position " + i + " has index " + axes[i].index());
+            }
+        }
+        this.axes = axes.clone();
+    }
+
+    public int dimensions() {
+        return axes.length;
+    }
+
+    public Axis<?> axis(int index) {
+        return axes[index];
+    }
+
+    /**
+     * Will return the box with every interval validated by the Operations of its axis.
+     *
+     * @throws IllegalArgumentException if the box does not have one interval per axis.
+     */
+    public Box validate(Box box) {
+        if (box.dimensions() != axes.length) {
+            throw new IllegalArgumentException("Expected " + axes.length + " dimensions: " + box);
+        }
+        Interval<?>[] intervals = new Interval<?>[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            intervals[i] = validate(axes[i], box);
+        }
+        return BoxDefault.of(intervals);
+    }
+
+    public boolean isEmpty(Box box) {
+        for (Axis<?> axis : axes) {
+            if (isEmpty(axis, box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean subsetOf(Box left, Box right) {
+        if (isEmpty(left)) {
+            return true;
+        }
+        for (Axis<?> axis : axes) {
+            if (!subsetOf(axis, left, right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Will return true if the intersection of the boxes is not empty, without computing the intersection.
+     */
+    public boolean overlaps(Box left, Box right) {
+        for (Axis<?> axis : axes) {
+            if (!overlaps(axis, left, right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Box intersection(Box left, Box right) {
+        Interval<?>[] intervals = new Interval<?>[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            intervals[i] = intersection(axes[i], left, right);
+        }
+        return BoxDefault.of(intervals);
+    }
+
+    /**
+     * Will return the smallest box containing both boxes. Empty boxes contain nothing, so they are ignored.
+     */
+    public Box hull(Box left, Box right) {
+        if (isEmpty(left)) {
+            return right;
+        }
+        if (isEmpty(right)) {
+            return left;
+        }
+        Interval<?>[] intervals = new Interval<?>[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            intervals[i] = hull(axes[i], left, right);
+        }
+        return BoxDefault.of(intervals);
+    }
+
+    /**
+     * Compares the lower bounds of the boxes along the axis.
+     */
+    int compareStart(int axis, Box left, Box right) {
+        return compareStart(axes[axis], left, right);
+    }
+
+    private static <T> Interval<T> validate(Axis<T> axis, Box box) {
+        Interval<T> interval = box.interval(axis);
+        return axis.operations().validate(interval.start(), interval.end());
+    }
+
+    private static <T> boolean isEmpty(Axis<T> axis, Box box) {
+        return axis.operations().isEmpty(box.interval(axis));
+    }
+
+    private static <T> boolean subsetOf(Axis<T> axis, Box left, Box right) {
+        return axis.operations().subsetOf(left.interval(axis), right.interval(axis));
+    }
+
+    private static <T> boolean overlaps(Axis<T> axis, Box left, Box right) {
+        Operations<T> operations = axis.operations();
+        Interval<T> fst = left.interval(axis);
+        Interval<T> snd = right.interval(axis);
+        return !operations.isEmpty(fst)
+                && !operations.isEmpty(snd)
+                && operations.compareStartToEnd(fst.start(), snd.end()) < 0
+                && operations.compareStartToEnd(snd.start(), fst.end()) < 0;
+    }
+
+    private static <T> Interval<T> intersection(Axis<T> axis, Box left, Box right) {
+        return axis.operations().intersection(left.interval(axis), right.interval(axis));
+    }
+
+    private static <T> Interval<T> hull(Axis<T> axis, Box left, Box right) {
+        Operations<T> operations = axis.operations();
+        Interval<T> fst = left.interval(axis);
+        Interval<T> snd = right.interval(axis);
+        return operations.validate(
+                operations.compareStart(fst.start(), snd.start()) <= 0 ? fst.start() : snd.start(),
+                operations.compareEnd(fst.end(), snd.end()) >= 0 ? fst.end() : snd.end());
+    }
+
+    private static <T> int compareStart(Axis<T> axis, Box left, Box right) {
+        return axis.operations().compareStart(left.interval(axis).start(), right.interval(axis).start());
+    }
+}
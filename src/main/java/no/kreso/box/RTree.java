@@ -0,0 +1,182 @@
+package no.kreso.box;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+
+/**
+ * Immutable R-tree of boxes, bulk loaded with Sort-Tile-Recursive. The boxes are sorted by their lower bound along the
+ * first axis and cut into slabs, every slab is sorted and cut along the next axis, and so on, until the last axis where
+ * runs of boxes are packed into leaves. The upper levels are packed the same way from the bounding boxes of the level
+ * below. This gives nodes that are full and overlap little, so an overlap query visits few nodes besides those on the
+ * paths to the results.
+ * <p>
+ * Lower bounds are used instead of centers, since bounds are only comparable, and may be null. Empty boxes are not
+ * stored, since they can never be the result of a query.
+ *
+ * @param <B> The type of the stored boxes, which is returned by queries.
+ */
+public final class RTree<B extends Box> {
+
+    /**
+     * Maximum number of children of a node.
+     */
+    static final int CAPACITY = 16;
+
+    private final BoxOperations operations;
+    private final Node root;
+    private final int size;
+
+    private RTree(BoxOperations operations, Node root, int size) {
+        this.operations = operations;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a box does not have one interval per axis.
+     */
+    public static <B extends Box> RTree<B> bulkLoad(Collection<? extends B> boxes, BoxOperations operations) {
+        List<Object> level = new ArrayList<>(boxes.size());
+        for (B box : boxes) {
+            if (box.dimensions() != operations.dimensions()) {
+                throw new IllegalArgumentException("Expected " + operations.dimensions() + " dimensions: " + box);
+            }
+            if (!operations.isEmpty(box)) {
+                level.add(box);
+            }
+        }
+        int size = level.size();
+        if (level.isEmpty()) {
+            return new RTree<>(operations, null, 0);
+        }
+        boolean leaves = true;
+        while (true) {
+            List<Node> nodes = new ArrayList<>(level.size() / CAPACITY + 1);
+            tile(operations, level, 0, leaves, nodes);
+            if (nodes.size() == 1) {
+                return new RTree<>(operations, nodes.get(0), size);
+            }
+            level = new ArrayList<>(nodes);
+            leaves = false;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Will return all boxes that have a non-empty intersection with the query.
+     */
+    public List<B> overlapping(Box query) {
+        List<B> result = new ArrayList<>();
+        forEachOverlapping(query, result::add);
+        return result;
+    }
+
+    public void forEachOverlapping(Box query, Consumer<? super B> action) {
+        if (root != null) {
+            overlapping(root, query, action);
+        }
+    }
+
+    /**
+     * Will pass every box matching the filter to the action. The filter is also applied to the bounding boxes of the
+     * nodes, to skip those that can not hold a match, so it must match every box containing a box that it matches.
+     * Tests of overlap with, or containment of, a fixed region or point satisfy this.
+     */
+    public void forEachMatching(Predicate<? super Box> filter, Consumer<? super B> action) {
+        if (root != null) {
+            matching(root, filter, action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void matching(Node node, Predicate<? super Box> filter, Consumer<? super B> action) {
+        if (!filter.test(node.bounds)) {
+            return;
+        }
+        for (Object child : node.children) {
+            if (node.leaf) {
+                if (filter.test((B) child)) {
+                    action.accept((B) child);
+                }
+            } else {
+                matching((Node) child, filter, action);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void overlapping(Node node, Box query, Consumer<? super B> action) {
+        if (!operations.overlaps(node.bounds, query)) {
+            return;
+        }
+        for (Object child : node.children) {
+            if (node.leaf) {
+                if (operations.overlaps((B) child, query)) {
+                    action.accept((B) child);
+                }
+            } else {
+                overlapping((Node) child, query, action);
+            }
+        }
+    }
+
+    /**
+     * Packs the items into nodes, cutting them into slabs along the given axis and recursing into the next axis.
+     */
+    private static void tile(BoxOperations operations, List<Object> items, int axis, boolean leaves, List<Node> out) {
+        items.sort((fst, snd) -> operations.compareStart(axis, bounds(fst), bounds(snd)));
+        if (axis == operations.dimensions() - 1 || items.size() <= CAPACITY) {
+            for (int from = 0; from < items.size(); from += CAPACITY) {
+                List<Object> children = items.subList(from, Math.min(from + CAPACITY, items.size()));
+                out.add(new Node(operations, children.toArray(), leaves));
+            }
+            return;
+        }
+        int nodes = ceilDiv(items.size(), CAPACITY);
+        int slabs = (int) Math.ceil(Math.pow(nodes, 1.0 / (operations.dimensions() - axis)));
+        int slabSize = CAPACITY * ceilDiv(nodes, slabs);
+        for (int from = 0; from < items.size(); from += slabSize) {
+            List<Object> slab = items.subList(from, Math.min(from + slabSize, items.size()));
+            tile(operations, slab, axis + 1, leaves, out);
+        }
+    }
+
+    private static Box bounds(Object item) {
+        return item instanceof Node node ? node.bounds : (Box) item;
+    }
+
+    private static int ceilDiv(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private static final class Node {
+
+        private final Box bounds;
+        /**
+         * Boxes if this is a leaf, nodes otherwise.
+         */
+        private final Object[] children;
+        private final boolean leaf;
+
+        private Node(BoxOperations operations, Object[] children, boolean leaf) {
+            Box bounds = bounds(children[0]);
+            for (int i = 1; i < children.length; i++) {
+                bounds = operations.hull(bounds, bounds(children[i]));
+            }
+            this.bounds = bounds;
+            this.children = children;
+            this.leaf = leaf;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package no.kreso.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * Encoding of a single bound of an interval. Null bounds are handled by {@link IntervalCodec}, so implementations are
+ * only ever given non-null values. Implementations for common types are available in {@link BoundEncoders}.
+ *
+ * @param <T> The type of the bound
+ */
+public interface BoundEncoder<T> {
+
+    void write(DataOutput out, T value) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,170 @@
+package no.kreso.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+
+/**
+ * Bound encoders for common types.
+ */
+public final class BoundEncoders {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Packages of java.base whose classes may be deserialized as part of a bound, besides the type of the bound.
+     */
+    private static final Set<String> VALUE_PACKAGES = Set.of("java.lang", "java.math", "java.time");
+
+    /**
+     * Greatest depth of the object graph of a deserialized bound.
+     */
+    private static final long MAX_DEPTH = 8;
+
+    private BoundEncoders() {
+    }
+
+    public static LongBoundEncoder<Long> longs() {
+        return new LongBoundEncoder<>() {
+            @Override
+            public long toLong(Long value) {
+                return value;
+            }
+
+            @Override
+            public Long fromLong(long value) {
+                return value;
+            }
+        };
+    }
+
+    public static LongBoundEncoder<Integer> integers() {
+        return new LongBoundEncoder<>() {
+            @Override
+            public long toLong(Integer value) {
+                return value;
+            }
+
+            @Override
+            public Integer fromLong(long value) {
+                return Math.toIntExact(value);
+            }
+        };
+    }
+
+    /**
+     * Encodes dates as their epoch day.
+     */
+    public static LongBoundEncoder<LocalDate> localDates() {
+        return new LongBoundEncoder<>() {
+            @Override
+            public long toLong(LocalDate value) {
+                return value.toEpochDay();
+            }
+
+            @Override
+            public LocalDate fromLong(long value) {
+                return LocalDate.ofEpochDay(value);
+            }
+        };
+    }
+
+    /**
+     * Encodes instants as nanoseconds since the epoch. This covers the years 1677 to 2262; encoding an instant outside
+     * of that range throws an ArithmeticException.
+     */
+    public static LongBoundEncoder<Instant> instants() {
+        return new LongBoundEncoder<>() {
+            @Override
+            public long toLong(Instant value) {
+                return Math.addExact(Math.multiplyExact(value.getEpochSecond(), NANOS_PER_SECOND), value.getNano());
+            }
+
+            @Override
+            public Instant fromLong(long value) {
+                return Instant.ofEpochSecond(
+                        Math.floorDiv(value, NANOS_PER_SECOND),
+                        Math.floorMod(value, NANOS_PER_SECOND));
+            }
+        };
+    }
+
+    public static BoundEncoder<String> strings() {
+        return new BoundEncoder<>() {
+            @Override
+            public void write(DataOutput out, String value) throws IOException {
+                out.writeUTF(value);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+    }
+
+    /**
+     * Fallback for any serializable type, using Java serialization for every bound. This is considerably larger and
+     * slower than the other encoders, and intended for types that are rarely used as bounds.
+     * <p>
+     * Since the bytes may come from another process, reading is restricted by an {@link ObjectInputFilter} that only
+     * accepts the given type, primitive arrays and the classes of java.lang, java.math and java.time, in a graph of
+     * limited depth. Any other class in the stream is rejected with an {@link java.io.InvalidClassException}, before it
+     * is instantiated, so a type whose fields hold other classes can not be decoded by this encoder.
+     */
+    public static <T extends Serializable> BoundEncoder<T> serialized(Class<T> type) {
+        return new BoundEncoder<>() {
+            @Override
+            public void write(DataOutput out, T value) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+                    objects.writeObject(value);
+                }
+                Varints.writeUnsigned(out, bytes.size());
+                out.write(bytes.toByteArray());
+            }
+
+            @Override
+            public T read(DataInput in) throws IOException {
+                byte[] bytes = new byte[Math.toIntExact(Varints.readUnsigned(in))];
+                in.readFully(bytes);
+                try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    objects.setObjectInputFilter(filter(type));
+                    return type.cast(objects.readObject());
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+    }
+
+    private static ObjectInputFilter filter(Class<?> type) {
+        return info -> {
+            if (info.depth() > MAX_DEPTH) {
+                return ObjectInputFilter.Status.REJECTED;
+            }
+            Class<?> serialClass = info.serialClass();
+            if (serialClass == null) {
+                return ObjectInputFilter.Status.UNDECIDED;
+            }
+            while (serialClass.isArray()) {
+                serialClass = serialClass.getComponentType();
+            }
+            boolean value = serialClass.getModule() == Object.class.getModule()
+                    && VALUE_PACKAGES.contains(serialClass.getPackageName());
+            return serialClass == type || serialClass.isPrimitive() || value
+                    ? ObjectInputFilter.Status.ALLOWED
+                    : ObjectInputFilter.Status.REJECTED;
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package no.kreso.codec;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Compact binary encoding of intervals and sequences of intervals.
+ * <p>
+ * Every interval starts with a byte of flags telling which bounds are null, followed by the bounds that are not. Since
+ * null is kept as null, it is decoded with the same meaning of positive or negative infinity that the Operations in use
+ * give it. With a {@link LongBoundEncoder}, sequences are written with every lower bound as a varint of the difference
+ * to the previous lower bound, and every upper bound as a varint of the length of the interval. For sorted sequences
+ * this typically takes two to four bytes per interval. Other encoders write each bound in full.
+ * <p>
+ * The differences are computed with overflowing arithmetic, which is undone when decoding, so every long value can be
+ * encoded.
+ *
+ * @param <T> The type of the interval
+ */
+public final class IntervalCodec<T> {
+
+    private static final int START_NULL = 1;
+    private static final int END_NULL = 2;
+
+    /**
+     * Greatest initial capacity of a decoded sequence, so that the size in a corrupt header can not cause a large
+     * allocation before the input runs out. Longer sequences grow as they are read.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final BoundEncoder<T> encoder;
+
+    public IntervalCodec(BoundEncoder<T> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void write(DataOutput out, Interval<T> interval) throws IOException {
+        out.writeByte(flags(interval));
+        if (interval.start() != null) {
+            encoder.write(out, interval.start());
+        }
+        if (interval.end() != null) {
+            encoder.write(out, interval.end());
+        }
+    }
+
+    public Interval<T> read(DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+        T start = (flags & START_NULL) != 0 ? null : encoder.read(in);
+        T end = (flags & END_NULL) != 0 ? null : encoder.read(in);
+        return IntervalDefault.of(start, end);
+    }
+
+    public void writeSequence(DataOutput out, List<? extends Interval<T>> intervals) throws IOException {
+        Varints.writeUnsigned(out, intervals.size());
+        if (!(encoder instanceof LongBoundEncoder<T> longEncoder)) {
+            for (Interval<T> interval : intervals) {
+                write(out, interval);
+            }
+            return;
+        }
+        long previous = 0;
+        for (Interval<T> interval : intervals) {
+            out.writeByte(flags(interval));
+            if (interval.start() != null) {
+                long start = longEncoder.toLong(interval.start());
+                Varints.writeSigned(out, start - previous);
+                previous = start;
+            }
+            if (interval.end() != null) {
+                // The length of the interval if the lower bound is known, otherwise the difference to the previous one
+                Varints.writeSigned(out, longEncoder.toLong(interval.end()) - previous);
+            }
+        }
+    }
+
+    /**
+     * @throws IOException if the input is malformed or ends early.
+     */
+    public List<Interval<T>> readSequence(DataInput in) throws IOException {
+        return readSequence(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxSize Upper bound of the number of intervals the input can hold.
+     */
+    private List<Interval<T>> readSequence(DataInput in, int maxSize) throws IOException {
+        long size = Varints.readUnsigned(in);
+        if (size < 0 || size > maxSize) {
+            throw new IOException("Invalid number of intervals: " + Long.toUnsignedString(size));
+        }
+        List<Interval<T>> intervals = new ArrayList<>((int) Math.min(size, MAX_INITIAL_CAPACITY));
+        if (!(encoder instanceof LongBoundEncoder<T> longEncoder)) {
+            for (int i = 0; i < size; i++) {
+                intervals.add(read(in));
+            }
+            return intervals;
+        }
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            int flags = in.readUnsignedByte();
+            T start = null;
+            T end = null;
+            if ((flags & START_NULL) == 0) {
+                previous += Varints.readSigned(in);
+                start = longEncoder.fromLong(previous);
+            }
+            if ((flags & END_NULL) == 0) {
+                end = longEncoder.fromLong(previous + Varints.readSigned(in));
+            }
+            intervals.add(IntervalDefault.of(start, end));
+        }
+        return intervals;
+    }
+
+    public byte[] toBytes(List<? extends Interval<T>> intervals) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeSequence(out, intervals);
+        } catch (IOException e) {
+            // Writing to a byte array does not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the bytes are malformed or end early.
+     */
+    public List<Interval<T>> fromBytes(byte[] bytes) throws IOException {
+        // Every interval takes at least its byte of flags
+        return readSequence(new DataInputStream(new ByteArrayInputStream(bytes)), bytes.length);
+    }
+
+    private static int flags(Interval<?> interval) {
+        return (interval.start() == null ? START_NULL : 0) | (interval.end() == null ? END_NULL : 0);
+    }
+}
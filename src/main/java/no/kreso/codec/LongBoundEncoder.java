@@ -0,0 +1,29 @@
+package no.kreso.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+
+/**
+ * Encoding of bounds that can be mapped to a long and back without loss. Sequences of such bounds are written by
+ * {@link IntervalCodec} as differences between consecutive values, which keeps them small for sorted sequences.
+ *
+ * @param <T> The type of the bound
+ */
+public interface LongBoundEncoder<T> extends BoundEncoder<T> {
+
+    long toLong(T value);
+
+    T fromLong(long value);
+
+    @Override
+    default void write(DataOutput out, T value) throws IOException {
+        Varints.writeSigned(out, toLong(value));
+    }
+
+    @Override
+    default T read(DataInput in) throws IOException {
+        return fromLong(Varints.readSigned(in));
+    }
+}
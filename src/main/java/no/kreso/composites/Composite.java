@@ -16,12 +16,18 @@ import no.kreso.operations.Operations;
  */
 public abstract class Composite<T, U extends Composite<T, U>> implements Interval<T> {
 
-    private final Interval<T> interval;
+    private final T start;
+    private final T end;
     private final Operations<T> operations;
 
+    /**
+     * The bounds are validated in place, the same way as by {@link Operations#validate}, so that creating a Composite
+     * allocates nothing but the Composite itself.
+     */
     Composite(T start, T end, Operations<T> operations) {
         this.operations = operations;
-        this.interval = operations().validate(start, end);
+        this.start = start;
+        this.end = operations.compareStartToEnd(start, end) > 0 ? start : end;
     }
 
     final Operations<T> operations() {
@@ -30,29 +36,109 @@ public abstract class Composite<T, U extends Composite<T, U>> implements Interva
 
     abstract U newInstance(T start, T end);
 
+    /**
+     * Will compare the lower bound of this interval to that of the other. Every comparison made by this class, except
+     * when validating the bounds in the constructor, goes through this method and the two following ones, so that
+     * subclasses that keep keys of their bounds can compare those instead.
+     */
+    int compareStart(Composite<T, U> other) {
+        return operations.compareStart(start, other.start);
+    }
+
+    /**
+     * Will compare the upper bound of this interval to that of the other.
+     */
+    int compareEnd(Composite<T, U> other) {
+        return operations.compareEnd(end, other.end);
+    }
+
+    /**
+     * Will compare the lower bound of this interval to the upper bound of the other, which may be this interval.
+     */
+    int compareStartToEnd(Composite<T, U> other) {
+        return operations.compareStartToEnd(start, other.end);
+    }
+
     final public T start() {
-        return interval.start();
+        return start;
     }
 
     final public T end() {
-        return interval.end();
+        return end;
     }
 
+    /**
+     * Gives the same result as {@link Operations#subsetOf}.
+     */
     final public boolean subsetOf(Composite<T, U> other) {
-        return operations.subsetOf(this.interval, other.interval);
+        if (isEmpty()) {
+            return true;
+        }
+        if (other.isEmpty()) {
+            return false;
+        }
+        return compareStart(other) >= 0 && compareEnd(other) <= 0;
     }
 
     final public boolean isEmpty() {
-        return operations.isEmpty(this.interval);
+        return compareStartToEnd(this) >= 0;
     }
 
+    /**
+     * Gives the same result as {@link Operations#intersection}, but computes the bounds directly instead of going
+     * through an intermediate interval. If the result is equal to one of the operands, that operand is returned, so
+     * at most one object is allocated.
+     */
     final public U intersection(Composite<T, U> other) {
-        Interval<T> result = operations.intersection(this.interval, other.interval);
-        return newInstance(result.start(), result.end());
+        if (isEmpty()) {
+            return self();
+        }
+        if (other.isEmpty()) {
+            return other.self();
+        }
+        T start = compareStart(other) > 0 ? this.start : other.start;
+        T end = compareEnd(other) < 0 ? this.end : other.end;
+        return result(other, start, end);
     }
 
+    /**
+     * Gives the same result as {@link Operations#union}, but computes the bounds directly instead of going through an
+     * intermediate interval. If the result is equal to one of the operands, that operand is returned, so at most one
+     * object is allocated.
+     */
     final public U union(Composite<T, U> other) {
-        Interval<T> result = operations.union(this.interval, other.interval);
-        return newInstance(result.start(), result.end());
+        if (isEmpty()) {
+            return other.self();
+        }
+        if (other.isEmpty()) {
+            return self();
+        }
+        if (other.compareStartToEnd(this) > 0) {
+            return newInstance(this.end, this.end);
+        }
+        if (compareStartToEnd(other) > 0) {
+            return newInstance(this.start, this.start);
+        }
+        T start = compareStart(other) < 0 ? this.start : other.start;
+        T end = compareEnd(other) > 0 ? this.end : other.end;
+        return result(other, start, end);
+    }
+
+    private U result(Composite<T, U> other, T start, T end) {
+        if (start == this.start && end == this.end) {
+            return self();
+        }
+        if (start == other.start && end == other.end) {
+            return other.self();
+        }
+        return newInstance(start, end);
+    }
+
+    /**
+     * Every instance of Composite is an instance of its concrete implementation U, by the contract of this class.
+     */
+    @SuppressWarnings("unchecked")
+    private U self() {
+        return (U) this;
     }
 }
@@ -0,0 +1,47 @@
+package no.kreso.composites;
+
+import no.kreso.operations.Operations;
+import no.kreso.operations.TimeOperations;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * Interval of instants, compared by their seconds and nanoseconds since the epoch. Calendar units are split at their
+ * boundaries in UTC.
+ */
+public final class InstantInterval extends TemporalComposite<Instant, InstantInterval> {
+
+    private static final Operations<Instant> OPERATIONS = TimeOperations.instant();
+
+    private InstantInterval(Instant start, Instant end) {
+        super(start, end, OPERATIONS);
+    }
+
+    public static InstantInterval of(Instant start, Instant end) {
+        return new InstantInterval(start, end);
+    }
+
+    @Override
+    InstantInterval newInstance(Instant start, Instant end) {
+        return new InstantInterval(start, end);
+    }
+
+    @Override
+    long epochSecond(Instant point) {
+        return point.getEpochSecond();
+    }
+
+    @Override
+    int nano(Instant point) {
+        return point.getNano();
+    }
+
+    @Override
+    Instant next(Instant point, ChronoUnit unit) {
+        return boundaryAfter(LocalDateTime.ofInstant(point, ZoneOffset.UTC), unit).toInstant(ZoneOffset.UTC);
+    }
+}
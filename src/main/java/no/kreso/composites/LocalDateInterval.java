@@ -0,0 +1,46 @@
+package no.kreso.composites;
+
+import no.kreso.operations.Operations;
+import no.kreso.operations.TimeOperations;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * Interval of dates, compared by their epoch day. Splits by days, weeks, months and years.
+ */
+public final class LocalDateInterval extends TemporalComposite<LocalDate, LocalDateInterval> {
+
+    private static final Operations<LocalDate> OPERATIONS = TimeOperations.localDate();
+
+    private LocalDateInterval(LocalDate start, LocalDate end) {
+        super(start, end, OPERATIONS);
+    }
+
+    public static LocalDateInterval of(LocalDate start, LocalDate end) {
+        return new LocalDateInterval(start, end);
+    }
+
+    @Override
+    LocalDateInterval newInstance(LocalDate start, LocalDate end) {
+        return new LocalDateInterval(start, end);
+    }
+
+    @Override
+    long epochSecond(LocalDate point) {
+        return point.toEpochSecond(LocalTime.MIDNIGHT, ZoneOffset.UTC);
+    }
+
+    @Override
+    int nano(LocalDate point) {
+        return 0;
+    }
+
+    @Override
+    LocalDate next(LocalDate point, ChronoUnit unit) {
+        return boundaryAfter(point, unit);
+    }
+}
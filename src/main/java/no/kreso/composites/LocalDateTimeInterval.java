@@ -0,0 +1,45 @@
+package no.kreso.composites;
+
+import no.kreso.operations.Operations;
+import no.kreso.operations.TimeOperations;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * Interval of local date-times, compared by their seconds and nanoseconds since the epoch as if they were in UTC.
+ */
+public final class LocalDateTimeInterval extends TemporalComposite<LocalDateTime, LocalDateTimeInterval> {
+
+    private static final Operations<LocalDateTime> OPERATIONS = TimeOperations.localDateTime();
+
+    private LocalDateTimeInterval(LocalDateTime start, LocalDateTime end) {
+        super(start, end, OPERATIONS);
+    }
+
+    public static LocalDateTimeInterval of(LocalDateTime start, LocalDateTime end) {
+        return new LocalDateTimeInterval(start, end);
+    }
+
+    @Override
+    LocalDateTimeInterval newInstance(LocalDateTime start, LocalDateTime end) {
+        return new LocalDateTimeInterval(start, end);
+    }
+
+    @Override
+    long epochSecond(LocalDateTime point) {
+        return point.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Override
+    int nano(LocalDateTime point) {
+        return point.getNano();
+    }
+
+    @Override
+    LocalDateTime next(LocalDateTime point, ChronoUnit unit) {
+        return boundaryAfter(point, unit);
+    }
+}
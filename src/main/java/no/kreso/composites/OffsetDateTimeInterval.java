@@ -0,0 +1,45 @@
+package no.kreso.composites;
+
+import no.kreso.operations.Operations;
+import no.kreso.operations.TimeOperations;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+
+/**
+ * Interval of offset date-times, compared by the seconds and nanoseconds since the epoch of their instants. Calendar
+ * units are split at their boundaries in the offset of each part's lower bound.
+ */
+public final class OffsetDateTimeInterval extends TemporalComposite<OffsetDateTime, OffsetDateTimeInterval> {
+
+    private static final Operations<OffsetDateTime> OPERATIONS = TimeOperations.offsetDateTime();
+
+    private OffsetDateTimeInterval(OffsetDateTime start, OffsetDateTime end) {
+        super(start, end, OPERATIONS);
+    }
+
+    public static OffsetDateTimeInterval of(OffsetDateTime start, OffsetDateTime end) {
+        return new OffsetDateTimeInterval(start, end);
+    }
+
+    @Override
+    OffsetDateTimeInterval newInstance(OffsetDateTime start, OffsetDateTime end) {
+        return new OffsetDateTimeInterval(start, end);
+    }
+
+    @Override
+    long epochSecond(OffsetDateTime point) {
+        return point.toEpochSecond();
+    }
+
+    @Override
+    int nano(OffsetDateTime point) {
+        return point.getNano();
+    }
+
+    @Override
+    OffsetDateTime next(OffsetDateTime point, ChronoUnit unit) {
+        return boundaryAfter(point.toLocalDateTime(), unit).atOffset(point.getOffset());
+    }
+}
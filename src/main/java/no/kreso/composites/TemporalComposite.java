@@ -0,0 +1,163 @@
+package no.kreso.composites;
+
+import no.kreso.operations.Operations;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.TemporalUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Composite of intervals over a java.time type, adding the length of an interval, shifting it in time, and splitting it
+ * at the boundaries of a calendar unit. The concrete types use the Operations of
+ * {@link no.kreso.operations.TimeOperations}, and interpret null as by {@code OperationsDefault.unbound()}.
+ * <p>
+ * Every bound is keyed once, when the interval is created, by its epoch second and nanosecond, which cover the whole
+ * range of java.time. The operations of {@link Composite} then compare the keys of the two intervals as a long and an
+ * int, without calling the Operations, and without converting the bounds on every comparison.
+ *
+ * @param <T> The type of the interval
+ * @param <U> The concrete implementation of this abstract class.
+ */
+public abstract class TemporalComposite<T extends Temporal, U extends TemporalComposite<T, U>> extends Composite<T, U> {
+
+    private final long startSecond;
+    private final int startNano;
+    private final long endSecond;
+    private final int endNano;
+
+    TemporalComposite(T start, T end, Operations<T> operations) {
+        super(start, end, operations);
+        this.startSecond = start() == null ? Long.MIN_VALUE : epochSecond(start());
+        this.startNano = start() == null ? 0 : nano(start());
+        this.endSecond = end() == null ? Long.MAX_VALUE : epochSecond(end());
+        this.endNano = end() == null ? 0 : nano(end());
+    }
+
+    /**
+     * Will return the seconds from the epoch to the point, where the types without an offset are taken to be in UTC.
+     * Called by the constructor, so it must not depend on the state of the instance.
+     */
+    abstract long epochSecond(T point);
+
+    /**
+     * Will return the nanosecond within the second of the point. Called by the constructor, so it must not depend on
+     * the state of the instance.
+     */
+    abstract int nano(T point);
+
+    /**
+     * Will return the first boundary of the unit after the point, such as the first day of the next month for
+     * {@link ChronoUnit#MONTHS}.
+     */
+    abstract T next(T point, ChronoUnit unit);
+
+    /**
+     * Will return the number of whole units from the lower to the upper bound, which is zero for an empty interval.
+     *
+     * @throws IllegalStateException If the interval is not empty and is unbounded.
+     */
+    public final long length(TemporalUnit unit) {
+        if (isEmpty()) {
+            return 0;
+        }
+        requireBounded();
+        return start().until(end(), unit);
+    }
+
+    /**
+     * Will return the interval moved by the amount of the unit. Null bounds are left as they are.
+     */
+    @SuppressWarnings("unchecked")
+    public final U shift(long amount, TemporalUnit unit) {
+        // Temporal.plus returns the type it is called on for every type of java.time
+        T start = start() == null ? null : (T) start().plus(amount, unit);
+        T end = end() == null ? null : (T) end().plus(amount, unit);
+        return newInstance(start, end);
+    }
+
+    /**
+     * Will return the interval split at every boundary of the unit within it, in ascending order. The first and last
+     * parts are cut short if the bounds of the interval are not boundaries of the unit themselves. An empty interval
+     * gives no parts.
+     *
+     * @throws IllegalStateException If the interval is not empty and is unbounded.
+     */
+    public final List<U> split(ChronoUnit unit) {
+        if (isEmpty()) {
+            return List.of();
+        }
+        requireBounded();
+        List<U> parts = new ArrayList<>();
+        T from = start();
+        while (operations().compareStartToEnd(from, end()) < 0) {
+            T to = next(from, unit);
+            if (operations().compareEnd(to, end()) > 0) {
+                to = end();
+            }
+            parts.add(newInstance(from, to));
+            from = to;
+        }
+        return parts;
+    }
+
+    @Override
+    final int compareStart(Composite<T, U> other) {
+        TemporalComposite<T, U> that = (TemporalComposite<T, U>) other;
+        return compare(startSecond, startNano, that.startSecond, that.startNano);
+    }
+
+    @Override
+    final int compareEnd(Composite<T, U> other) {
+        TemporalComposite<T, U> that = (TemporalComposite<T, U>) other;
+        return compare(endSecond, endNano, that.endSecond, that.endNano);
+    }
+
+    @Override
+    final int compareStartToEnd(Composite<T, U> other) {
+        TemporalComposite<T, U> that = (TemporalComposite<T, U>) other;
+        return compare(startSecond, startNano, that.endSecond, that.endNano);
+    }
+
+    private static int compare(long second, int nano, long otherSecond, int otherNano) {
+        int result = Long.compare(second, otherSecond);
+        return result != 0 ? result : Integer.compare(nano, otherNano);
+    }
+
+    private void requireBounded() {
+        if (start() == null || end() == null) {
+            throw new IllegalStateException("Interval is unbounded: [" + start() + ", " + end() + ")");
+        }
+    }
+
+    /**
+     * Will return the first boundary of the unit after the date. Weeks start on Monday.
+     */
+    static LocalDate boundaryAfter(LocalDate date, ChronoUnit unit) {
+        return switch (unit) {
+            case DAYS -> date.plusDays(1);
+            case WEEKS -> date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case MONTHS -> date.withDayOfMonth(1).plusMonths(1);
+            case YEARS -> date.withDayOfYear(1).plusYears(1);
+            default -> throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+        };
+    }
+
+    /**
+     * Will return the first boundary of the unit after the date-time. Units of a day or shorter are aligned to
+     * midnight, and longer units to the start of a day.
+     */
+    static LocalDateTime boundaryAfter(LocalDateTime dateTime, ChronoUnit unit) {
+        if (unit.isTimeBased() || unit == ChronoUnit.DAYS) {
+            return dateTime.truncatedTo(unit).plus(1, unit);
+        }
+        return boundaryAfter(dateTime.toLocalDate(), unit).atStartOfDay();
+    }
+}
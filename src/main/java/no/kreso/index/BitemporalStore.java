@@ -0,0 +1,312 @@
+package no.kreso.index;
+
+import no.kreso.box.Axis;
+import no.kreso.box.Box;
+import no.kreso.box.BoxOperations;
+import no.kreso.box.RTree;
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+
+/**
+ * Store of facts with two time axes: the valid time, when the fact is true in the modelled world, and the transaction
+ * time, when the store believed it. Facts are asserted with a transaction time interval that is open until further
+ * notice, and retracted by closing that interval. Nothing is ever removed, so every past state of knowledge can be
+ * queried.
+ * <p>
+ * Every version of a fact is a box of valid time by transaction time, and the boxes are indexed by a series of
+ * {@link RTree}s of doubling sizes: new boxes are collected in a small buffer, and a full buffer is merged with the
+ * smallest trees into the first free level. Queries descend every tree along both axes, so that a query for the facts
+ * valid at one time as believed at another only visits the nodes on the paths to its results, in O(log^2 n + k) time.
+ * Retracting a fact replaces its open version by a closed one. The open version is skipped by queries until the tree
+ * holding it is merged, and all trees are rebuilt once such versions number more than a quarter of the live ones, so
+ * that they never make up more than a fifth of the trees. Changes take amortized O(log^2 n) time.
+ * <p>
+ * The assertion and retraction times are indexed by sorted maps. Null bounds are interpreted by the given Operations,
+ * so with {@code OperationsDefault.unbound()} a null upper bound means until further notice. This class is not thread
+ * safe.
+ *
+ * @param <T> The type of both time axes
+ * @param <V> The type of the facts
+ */
+public final class BitemporalStore<T, V> {
+
+    /**
+     * Number of versions collected before they are merged into the trees, and the size of the smallest tree.
+     */
+    private static final int BUFFER_SIZE = 64;
+
+    private final Operations<T> operations;
+    private final Axis<T> validAxis;
+    private final Axis<T> recordedAxis;
+    private final BoxOperations boxOperations;
+    /**
+     * Level i holds a tree of at most BUFFER_SIZE * 2^i versions, or null.
+     */
+    private final List<RTree<Version<T, V>>> levels = new ArrayList<>();
+    private final List<Version<T, V>> buffer = new ArrayList<>(BUFFER_SIZE);
+    /**
+     * Stored versions of the facts currently believed, by fact. Equal facts may be asserted more than once.
+     */
+    private final Map<Fact<T, V>, List<Version<T, V>>> believed = new HashMap<>();
+    private final TreeMap<T, List<Fact<T, V>>> assertions;
+    private final TreeMap<T, List<Fact<T, V>>> retractions;
+    private int size;
+    private int retired;
+
+    public BitemporalStore(Operations<T> operations) {
+        this.operations = operations;
+        this.validAxis = new Axis<>(0, operations);
+        this.recordedAxis = new Axis<>(1, operations);
+        this.boxOperations = new BoxOperations(validAxis, recordedAxis);
+        this.assertions = new TreeMap<>(operations::compareStart);
+        this.retractions = new TreeMap<>(operations::compareStart);
+    }
+
+    /**
+     * @param value The fact.
+     * @param valid When the fact is true.
+     * @param recorded When the fact was believed by the store.
+     */
+    public record Fact<T, V>(V value, Interval<T> valid, Interval<T> recorded) { }
+
+    /**
+     * @param asserted Facts asserted within the period, by the time of their assertion.
+     * @param retracted Facts retracted within the period, by the time of their retraction.
+     */
+    public record Changes<T, V>(List<Fact<T, V>> asserted, List<Fact<T, V>> retracted) { }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Will record the fact as believed from the given transaction time until further notice. Returns the stored fact,
+     * which is needed to retract it.
+     *
+     * @throws IllegalArgumentException if the valid time is empty.
+     */
+    public Fact<T, V> assertFact(V value, Interval<T> valid, T transactionTime) {
+        Objects.requireNonNull(transactionTime, "transactionTime");
+        if (operations.isEmpty(valid)) {
+            throw new IllegalArgumentException("Valid time is empty: " + valid);
+        }
+        Fact<T, V> fact = new Fact<>(value, valid, operations.validate(transactionTime, null));
+        if (operations.isEmpty(fact.recorded())) {
+            throw new IllegalArgumentException("Null is not interpreted as infinity by the upper bound");
+        }
+        believed.computeIfAbsent(fact, key -> new ArrayList<>(1)).add(add(fact));
+        assertions.computeIfAbsent(transactionTime, time -> new ArrayList<>(1)).add(fact);
+        return fact;
+    }
+
+    /**
+     * Will stop believing the fact from the given transaction time. Returns the fact as it is now stored, with its
+     * transaction time closed.
+     *
+     * @throws IllegalArgumentException if the fact is not currently believed, or the transaction time is not after its
+     *                                  assertion.
+     */
+    public Fact<T, V> retract(Fact<T, V> fact, T transactionTime) {
+        Objects.requireNonNull(transactionTime, "transactionTime");
+        if (operations.compareStart(transactionTime, fact.recorded().start()) <= 0) {
+            throw new IllegalArgumentException("Retraction at " + transactionTime + " is not after assertion of " + fact);
+        }
+        List<Version<T, V>> versions = fact.recorded().end() == null ? believed.get(fact) : null;
+        if (versions == null) {
+            throw new IllegalArgumentException("Fact is not currently believed: " + fact);
+        }
+        versions.remove(versions.size() - 1).retired = true;
+        if (versions.isEmpty()) {
+            believed.remove(fact);
+        }
+        size--;
+        retired++;
+        Fact<T, V> retracted = new Fact<>(
+                fact.value(),
+                fact.valid(),
+                operations.validate(fact.recorded().start(), transactionTime));
+        add(retracted);
+        List<Fact<T, V>> asserted = assertions.get(fact.recorded().start());
+        asserted.set(asserted.indexOf(fact), retracted);
+        retractions.computeIfAbsent(transactionTime, time -> new ArrayList<>(1)).add(retracted);
+        if (4 * retired > size) {
+            rebuild();
+        }
+        return retracted;
+    }
+
+    /**
+     * Will return the facts valid at the given time, as they were believed at the given transaction time.
+     */
+    public List<Fact<T, V>> asOf(T validTime, T transactionTime) {
+        return search(box -> contains(box.interval(validAxis), validTime)
+                && contains(box.interval(recordedAxis), transactionTime));
+    }
+
+    /**
+     * Will return the facts valid at some point in the given range, as they were believed at the given transaction time.
+     */
+    public List<Fact<T, V>> asOf(Interval<T> validTime, T transactionTime) {
+        if (operations.isEmpty(validTime)) {
+            return List.of();
+        }
+        return search(box -> overlaps(box.interval(validAxis), validTime)
+                && contains(box.interval(recordedAxis), transactionTime));
+    }
+
+    /**
+     * Will return every version of the facts valid at the given time, whenever they were believed.
+     */
+    public List<Fact<T, V>> history(T validTime) {
+        return search(box -> contains(box.interval(validAxis), validTime));
+    }
+
+    /**
+     * Will return the facts asserted or retracted at transaction times within the half-open range [from, to).
+     */
+    public Changes<T, V> changedBetween(T from, T to) {
+        if (operations.compareStart(from, to) >= 0) {
+            return new Changes<>(List.of(), List.of());
+        }
+        return new Changes<>(
+                flatten(assertions.subMap(from, true, to, false).values()),
+                flatten(retractions.subMap(from, true, to, false).values()));
+    }
+
+    private Version<T, V> add(Fact<T, V> fact) {
+        Version<T, V> version = new Version<>(fact);
+        buffer.add(version);
+        size++;
+        if (buffer.size() == BUFFER_SIZE) {
+            flush();
+        }
+        return version;
+    }
+
+    /**
+     * Merges the buffer with the trees of the lowest levels, up to the first level that can hold them all, dropping
+     * retired versions.
+     */
+    private void flush() {
+        List<Version<T, V>> versions = new ArrayList<>();
+        collect(buffer, versions);
+        buffer.clear();
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                levels.add(null);
+            }
+            RTree<Version<T, V>> tree = levels.get(level);
+            if (tree != null) {
+                tree.forEachMatching(box -> true, version -> collect(List.of(version), versions));
+                levels.set(level, null);
+            }
+            if (versions.size() <= BUFFER_SIZE << level) {
+                levels.set(level, versions.isEmpty() ? null : RTree.bulkLoad(versions, boxOperations));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merges every version into a single tree, dropping the retired ones.
+     */
+    private void rebuild() {
+        List<Version<T, V>> versions = new ArrayList<>(size);
+        collect(buffer, versions);
+        buffer.clear();
+        for (RTree<Version<T, V>> tree : levels) {
+            if (tree != null) {
+                tree.forEachMatching(box -> true, version -> collect(List.of(version), versions));
+            }
+        }
+        levels.clear();
+        int level = 0;
+        while (BUFFER_SIZE << level < versions.size()) {
+            levels.add(null);
+            level++;
+        }
+        levels.add(versions.isEmpty() ? null : RTree.bulkLoad(versions, boxOperations));
+    }
+
+    /**
+     * Adds the live versions to the target, and forgets the retired ones.
+     */
+    private void collect(List<Version<T, V>> versions, List<Version<T, V>> target) {
+        for (Version<T, V> version : versions) {
+            if (version.retired) {
+                retired--;
+            } else {
+                target.add(version);
+            }
+        }
+    }
+
+    private List<Fact<T, V>> search(Predicate<Box> filter) {
+        List<Fact<T, V>> result = new ArrayList<>();
+        for (Version<T, V> version : buffer) {
+            if (!version.retired && filter.test(version)) {
+                result.add(version.fact);
+            }
+        }
+        for (RTree<Version<T, V>> tree : levels) {
+            if (tree != null) {
+                tree.forEachMatching(filter, version -> {
+                    if (!version.retired) {
+                        result.add(version.fact);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    private boolean contains(Interval<T> interval, T point) {
+        return operations.compareStart(interval.start(), point) <= 0
+                && operations.compareStartToEnd(point, interval.end()) < 0;
+    }
+
+    private boolean overlaps(Interval<T> interval, Interval<T> range) {
+        return operations.compareStartToEnd(interval.start(), range.end()) < 0
+                && operations.compareStartToEnd(range.start(), interval.end()) < 0;
+    }
+
+    private static <T, V> List<Fact<T, V>> flatten(Collection<List<Fact<T, V>>> facts) {
+        List<Fact<T, V>> result = new ArrayList<>();
+        facts.forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * A stored version of a fact, as a box of valid time by transaction time. Retired versions have been replaced by a
+     * retraction, and are skipped until they are dropped from the trees.
+     */
+    private static final class Version<T, V> implements Box {
+
+        private final Fact<T, V> fact;
+        private boolean retired;
+
+        private Version(Fact<T, V> fact) {
+            this.fact = fact;
+        }
+
+        @Override
+        public int dimensions() {
+            return 2;
+        }
+
+        @Override
+        public Interval<?> interval(int axis) {
+            return axis == 0 ? fact.valid() : fact.recorded();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Bulk evaluation of overlap and containment over every pair in the cross product of two lists of intervals. The right
+ * list is indexed once by an {@link IntervalTree}, and every left interval is a query against it, so the time taken is
+ * O((m + n) log n + k) for k overlapping pairs, instead of O(m n). The queries are split across a fork/join pool.
+ * <p>
+ * The results are matrices with a row for every left interval and a column for every right interval, by their index in
+ * the lists.
+ */
+public final class CrossProduct {
+
+    /**
+     * Ranges of fewer rows than this are queried sequentially.
+     */
+    private static final int THRESHOLD = 1 << 10;
+
+    private CrossProduct() {
+    }
+
+    /**
+     * Will return the pairs whose intersection is not empty, using the common fork/join pool.
+     */
+    public static <T> PairMatrix overlapping(
+            List<? extends Interval<T>> left,
+            List<? extends Interval<T>> right,
+            Operations<T> operations
+    ) {
+        return overlapping(left, right, operations, ForkJoinPool.commonPool());
+    }
+
+    public static <T> PairMatrix overlapping(
+            List<? extends Interval<T>> left,
+            List<? extends Interval<T>> right,
+            Operations<T> operations,
+            ForkJoinPool pool
+    ) {
+        return evaluate(left, right, operations, pool, false);
+    }
+
+    /**
+     * Will return the pairs where the left interval is a subset of the right interval, as by
+     * {@link Operations#subsetOf}, using the common fork/join pool. Note that an empty left interval is a subset of
+     * every right interval.
+     */
+    public static <T> PairMatrix subsets(
+            List<? extends Interval<T>> left,
+            List<? extends Interval<T>> right,
+            Operations<T> operations
+    ) {
+        return subsets(left, right, operations, ForkJoinPool.commonPool());
+    }
+
+    public static <T> PairMatrix subsets(
+            List<? extends Interval<T>> left,
+            List<? extends Interval<T>> right,
+            Operations<T> operations,
+            ForkJoinPool pool
+    ) {
+        return evaluate(left, right, operations, pool, true);
+    }
+
+    private static <T> PairMatrix evaluate(
+            List<? extends Interval<T>> left,
+            List<? extends Interval<T>> right,
+            Operations<T> operations,
+            ForkJoinPool pool,
+            boolean subsets
+    ) {
+        IntervalTree<T, Indexed<T>> tree = new IntervalTree<>(operations);
+        for (int i = 0; i < right.size(); i++) {
+            Interval<T> interval = right.get(i);
+            tree.insert(new Indexed<>(interval.start(), interval.end(), i));
+        }
+        List<Interval<T>> rows = new ArrayList<>(left);
+        PairMatrix matrix = new PairMatrix(rows.size(), right.size());
+        pool.invoke(new Task<>(operations, tree, rows, matrix, subsets, 0, rows.size()));
+        return matrix;
+    }
+
+    private record Indexed<T>(T start, T end, int index) implements Interval<T> { }
+
+    private static final class Task<T> extends RecursiveAction {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Operations<T> operations;
+        private final IntervalTree<T, Indexed<T>> tree;
+        private final List<Interval<T>> rows;
+        private final PairMatrix matrix;
+        private final boolean subsets;
+        private final int from;
+        private final int to;
+
+        private Task(
+                Operations<T> operations,
+                IntervalTree<T, Indexed<T>> tree,
+                List<Interval<T>> rows,
+                PairMatrix matrix,
+                boolean subsets,
+                int from,
+                int to
+        ) {
+            this.operations = operations;
+            this.tree = tree;
+            this.rows = rows;
+            this.matrix = matrix;
+            this.subsets = subsets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int row = from; row < to; row++) {
+                    query(row);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new Task<>(operations, tree, rows, matrix, subsets, from, middle),
+                    new Task<>(operations, tree, rows, matrix, subsets, middle, to));
+        }
+
+        private void query(int row) {
+            Interval<T> interval = rows.get(row);
+            if (!subsets) {
+                tree.forEachOverlapping(interval, candidate -> matrix.set(row, candidate.index()));
+            } else if (operations.isEmpty(interval)) {
+                matrix.setRow(row);
+            } else {
+                // Every superset of a non-empty interval overlaps it
+                tree.forEachOverlapping(interval, candidate -> {
+                    if (operations.subsetOf(interval, candidate)) {
+                        matrix.set(row, candidate.index());
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Immutable interval index, bulk built, in which the tree is implicit in a sorted array. The intervals are sorted by
+ * their lower bound, and the element at index i is the node at level k, where k is the number of trailing one bits of
+ * i. Its children are at i - 2^(k-1) and i + 2^(k-1). The greatest upper bound of every subtree is kept in a parallel
+ * array, as are the bounds themselves, so a query reads three flat arrays and allocates nothing. For long bounds,
+ * {@link LongImplicitIntervalTree} keeps these arrays as primitives. The layout is described by
+ * {@link ImplicitTreeLayout}.
+ * <p>
+ * Subtrees of the lowest levels are scanned linearly instead of descended, since their elements are adjacent in memory.
+ * Building takes O(n log n) time, and a query O(log n + k) for k results. Empty intervals are not stored, since they
+ * can never be the result of a query. Null is interpreted by the given Operations.
+ *
+ * @param <T> The type of the interval
+ * @param <I> The type of the stored intervals, which is returned by queries.
+ */
+public final class ImplicitIntervalTree<T, I extends Interval<T>> {
+
+    /**
+     * Subtrees at this level or lower are scanned linearly.
+     */
+    private static final int SCAN_LEVEL = 3;
+
+    private final Operations<T> operations;
+    private final Object[] intervals;
+    private final Object[] starts;
+    private final Object[] ends;
+    private final Object[] maxEnds;
+    private final int maxLevel;
+
+    @SuppressWarnings("unchecked")
+    private ImplicitIntervalTree(Operations<T> operations, Object[] intervals) {
+        this.operations = operations;
+        this.intervals = intervals;
+        int n = intervals.length;
+        this.starts = new Object[n];
+        this.ends = new Object[n];
+        this.maxEnds = new Object[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = ((I) intervals[i]).start();
+            ends[i] = ((I) intervals[i]).end();
+        }
+        this.maxLevel = n == 0 ? -1 : ImplicitTreeLayout.rootLevel(n);
+        ImplicitTreeLayout.computeMaxEnds(
+                n,
+                (fst, snd) -> operations.compareEnd((T) ends[fst], (T) ends[snd]),
+                (node, index) -> maxEnds[node] = ends[index]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, I extends Interval<T>> ImplicitIntervalTree<T, I> build(
+            Collection<? extends I> intervals,
+            Operations<T> operations
+    ) {
+        Object[] sorted = intervals.stream().filter(interval -> !operations.isEmpty(interval)).toArray();
+        Arrays.parallelSort(sorted, (fst, snd) -> operations.compareStart(((I) fst).start(), ((I) snd).start()));
+        return new ImplicitIntervalTree<>(operations, sorted);
+    }
+
+    public int size() {
+        return intervals.length;
+    }
+
+    public boolean isEmpty() {
+        return intervals.length == 0;
+    }
+
+    /**
+     * Will return all intervals containing the point.
+     */
+    public List<I> containing(T point) {
+        List<I> result = new ArrayList<>();
+        forEachContaining(point, result::add);
+        return result;
+    }
+
+    /**
+     * Will return all intervals that have a non-empty intersection with the range.
+     */
+    public List<I> overlapping(Interval<T> range) {
+        List<I> result = new ArrayList<>();
+        forEachOverlapping(range, result::add);
+        return result;
+    }
+
+    public void forEachContaining(T point, Consumer<? super I> action) {
+        query(point, null, true, action);
+    }
+
+    public void forEachOverlapping(Interval<T> range, Consumer<? super I> action) {
+        if (!operations.isEmpty(range)) {
+            query(range.start(), range.end(), false, action);
+        }
+    }
+
+    /**
+     * Descends the tree by recursion, so that a query allocates nothing. The depth is bounded by the level of the root.
+     *
+     * @param point If true, finds the intervals containing start, and end is ignored.
+     */
+    private void query(T start, T end, boolean point, Consumer<? super I> action) {
+        if (maxLevel >= 0) {
+            query((1 << maxLevel) - 1, maxLevel, start, end, point, action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void query(int node, int level, T start, T end, boolean point, Consumer<? super I> action) {
+        int n = intervals.length;
+        if (node >= n) {
+            if (level > 0) {
+                query(node - (1 << (level - 1)), level - 1, start, end, point, action);
+            }
+            return;
+        }
+        if (operations.compareStartToEnd(start, (T) maxEnds[node]) >= 0) {
+            return;
+        }
+        if (level <= SCAN_LEVEL) {
+            int to = Math.min(node + (1 << level), n);
+            for (int i = node - (1 << level) + 1; i < to && startsBefore(i, start, end, point); i++) {
+                if (operations.compareStartToEnd(start, (T) ends[i]) < 0) {
+                    action.accept((I) intervals[i]);
+                }
+            }
+            return;
+        }
+        int half = 1 << (level - 1);
+        query(node - half, level - 1, start, end, point, action);
+        if (startsBefore(node, start, end, point)) {
+            if (operations.compareStartToEnd(start, (T) ends[node]) < 0) {
+                action.accept((I) intervals[node]);
+            }
+            query(node + half, level - 1, start, end, point, action);
+        }
+    }
+
+    /**
+     * Will return true if the interval at the index starts early enough to be a result, and so may its predecessors.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean startsBefore(int index, T start, T end, boolean point) {
+        return point
+                ? operations.compareStart((T) starts[index], start) <= 0
+                : operations.compareStartToEnd((T) starts[index], end) < 0;
+    }
+}
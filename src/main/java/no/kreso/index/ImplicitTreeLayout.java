@@ -0,0 +1,74 @@
+package no.kreso.index;
+
+import java.util.function.IntBinaryOperator;
+
+
+/**
+ * Layout of the implicit interval trees, shared by {@link ImplicitIntervalTree}, {@link LongImplicitIntervalTree} and
+ * the files of {@code no.kreso.store.MappedIntervalStore}. The intervals are sorted by their lower bound, and the entry
+ * at index i is the node at level k, where k is the number of trailing one bits of i. Its children are at i - 2^(k-1)
+ * and i + 2^(k-1). Subtrees are cut off where the entries end, so the rightmost path of the tree may pass through
+ * missing nodes.
+ */
+public final class ImplicitTreeLayout {
+
+    /**
+     * Receives a node, together with the index of the entry with the greatest upper bound in the subtree of the node.
+     */
+    @FunctionalInterface
+    public interface MaxEndConsumer {
+        void accept(int node, int index);
+    }
+
+    private ImplicitTreeLayout() {
+    }
+
+    /**
+     * Will return the level of the root of the tree over the given number of entries, which is the greatest k such
+     * that 2^k is not greater than the size. The root is at index 2^k - 1.
+     */
+    public static int rootLevel(int size) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(size, 1));
+    }
+
+    /**
+     * Finds the greatest upper bound of the subtree of every node of the tree over the given number of entries, and
+     * passes its index to the consumer. Children are passed before their parents.
+     *
+     * @param compareEnds Compares the upper bounds of the entries at two indices.
+     */
+    public static void computeMaxEnds(int size, IntBinaryOperator compareEnds, MaxEndConsumer consumer) {
+        if (size > 0) {
+            int level = rootLevel(size);
+            computeMaxEnds(size, (1 << level) - 1, level, compareEnds, consumer);
+        }
+    }
+
+    /**
+     * Will return the index of the greatest upper bound in the subtree of the node, or -1 if the subtree is missing
+     * altogether. A missing node takes the greatest upper bound of its left child, which is the only one it can have.
+     */
+    private static int computeMaxEnds(
+            int size,
+            int node,
+            int level,
+            IntBinaryOperator compareEnds,
+            MaxEndConsumer consumer
+    ) {
+        if (node >= size) {
+            return level == 0 ? -1 : computeMaxEnds(size, node - (1 << (level - 1)), level - 1, compareEnds, consumer);
+        }
+        int max = node;
+        if (level > 0) {
+            int half = 1 << (level - 1);
+            max = greater(max, computeMaxEnds(size, node - half, level - 1, compareEnds, consumer), compareEnds);
+            max = greater(max, computeMaxEnds(size, node + half, level - 1, compareEnds, consumer), compareEnds);
+        }
+        consumer.accept(node, max);
+        return max;
+    }
+
+    private static int greater(int fst, int snd, IntBinaryOperator compareEnds) {
+        return snd < 0 || compareEnds.applyAsInt(fst, snd) >= 0 ? fst : snd;
+    }
+}
@@ -0,0 +1,251 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Balanced (AVL) interval tree, augmented with the greatest upper bound of every subtree. Intervals are ordered by
+ * their lower bound, then by their upper bound, using the comparisons of the given Operations, so that null is
+ * interpreted the same way as by the Operations themselves.
+ * <p>
+ * Insertion and deletion take O(log n) time. Finding the k intervals that contain a point or overlap an interval takes
+ * O(log n + k) time. Intervals with identical bounds share a node. Empty intervals are not stored, since they can never
+ * be the result of a query. This class is not thread safe.
+ *
+ * @param <T> The type of the interval
+ * @param <I> The type of the stored intervals, which is returned by queries.
+ */
+public final class IntervalTree<T, I extends Interval<T>> {
+
+    private final Operations<T> operations;
+    private Node<T, I> root;
+    private int size;
+
+    public IntervalTree(Operations<T> operations) {
+        this.operations = operations;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Will insert the interval, unless it is empty. Returns true if the interval was inserted.
+     */
+    public boolean insert(I interval) {
+        if (operations.isEmpty(interval)) {
+            return false;
+        }
+        root = insert(root, interval);
+        size++;
+        return true;
+    }
+
+    /**
+     * Will remove one interval equal to the given interval. Returns true if such an interval was found.
+     */
+    public boolean delete(I interval) {
+        if (operations.isEmpty(interval)) {
+            return false;
+        }
+        int sizeBefore = size;
+        root = delete(root, interval);
+        return size < sizeBefore;
+    }
+
+    /**
+     * Will return all intervals containing the point.
+     */
+    public List<I> containing(T point) {
+        List<I> result = new ArrayList<>();
+        forEachContaining(point, result::add);
+        return result;
+    }
+
+    /**
+     * Will return all intervals that have a non-empty intersection with the range.
+     */
+    public List<I> overlapping(Interval<T> range) {
+        List<I> result = new ArrayList<>();
+        forEachOverlapping(range, result::add);
+        return result;
+    }
+
+    public void forEachContaining(T point, Consumer<? super I> action) {
+        containing(root, point, action);
+    }
+
+    public void forEachOverlapping(Interval<T> range, Consumer<? super I> action) {
+        if (!operations.isEmpty(range)) {
+            overlapping(root, range.start(), range.end(), action);
+        }
+    }
+
+    private void containing(Node<T, I> node, T point, Consumer<? super I> action) {
+        while (node != null && operations.compareStartToEnd(point, node.maxEnd) < 0) {
+            containing(node.left, point, action);
+            if (operations.compareStart(node.start, point) > 0) {
+                return;
+            }
+            if (operations.compareStartToEnd(point, node.end) < 0) {
+                node.intervals.forEach(action);
+            }
+            node = node.right;
+        }
+    }
+
+    private void overlapping(Node<T, I> node, T start, T end, Consumer<? super I> action) {
+        while (node != null && operations.compareStartToEnd(start, node.maxEnd) < 0) {
+            overlapping(node.left, start, end, action);
+            if (operations.compareStartToEnd(node.start, end) >= 0) {
+                return;
+            }
+            if (operations.compareStartToEnd(start, node.end) < 0) {
+                node.intervals.forEach(action);
+            }
+            node = node.right;
+        }
+    }
+
+    private int compare(T start, T end, Node<T, I> node) {
+        int comparison = operations.compareStart(start, node.start);
+        return comparison != 0 ? comparison : operations.compareEnd(end, node.end);
+    }
+
+    private Node<T, I> insert(Node<T, I> node, I interval) {
+        if (node == null) {
+            return new Node<>(interval);
+        }
+        int comparison = compare(interval.start(), interval.end(), node);
+        if (comparison < 0) {
+            node.left = insert(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = insert(node.right, interval);
+        } else {
+            node.intervals.add(interval);
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    private Node<T, I> delete(Node<T, I> node, I interval) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(interval.start(), interval.end(), node);
+        if (comparison < 0) {
+            node.left = delete(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            if (!node.intervals.remove(interval)) {
+                return node;
+            }
+            size--;
+            if (!node.intervals.isEmpty()) {
+                return node;
+            }
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T, I> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node<T, I> deleteMin(Node<T, I> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return rebalance(node);
+    }
+
+    private Node<T, I> rebalance(Node<T, I> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T, I> rotateLeft(Node<T, I> node) {
+        Node<T, I> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T, I> rotateRight(Node<T, I> node) {
+        Node<T, I> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node<T, I> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        T maxEnd = node.end;
+        if (node.left != null && operations.compareEnd(node.left.maxEnd, maxEnd) > 0) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && operations.compareEnd(node.right.maxEnd, maxEnd) > 0) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T, I extends Interval<T>> {
+
+        private final T start;
+        private final T end;
+        private final List<I> intervals = new ArrayList<>(1);
+        private T maxEnd;
+        private int height = 1;
+        private Node<T, I> left;
+        private Node<T, I> right;
+
+        private Node(I interval) {
+            this.start = interval.start();
+            this.end = interval.end();
+            this.maxEnd = interval.end();
+            this.intervals.add(interval);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.LongOperations;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Primitive counterpart of {@link ImplicitIntervalTree}, for intervals with long bounds. Bounds are
+ * encoded as by {@link LongOperations}, so positive and negative infinity are represented by their sentinel values.
+ * The sorted lower bounds, the upper bounds, the greatest upper bound of every subtree and the position of every
+ * interval in the input are kept in four primitive arrays, so a query reads contiguous memory and dereferences no
+ * objects. Queries descend the tree by recursion and pass their results to a primitive callback, so they allocate
+ * nothing.
+ * <p>
+ * Building takes O(n log n) time, and a query O(log n + k) for k results. Empty intervals are not stored, since they
+ * can never be the result of a query.
+ */
+public final class LongImplicitIntervalTree {
+
+    /**
+     * Receives the intervals found by a query, together with their position in the input the tree was built from.
+     */
+    @FunctionalInterface
+    public interface IntervalConsumer {
+        void accept(int index, long start, long end);
+    }
+
+    /**
+     * Subtrees at this level or lower are scanned linearly.
+     */
+    private static final int SCAN_LEVEL = 3;
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final int[] indices;
+    private final int rootLevel;
+
+    private LongImplicitIntervalTree(long[] starts, long[] ends, int[] indices) {
+        this.starts = starts;
+        this.ends = ends;
+        this.indices = indices;
+        this.maxEnds = new long[starts.length];
+        this.rootLevel = ImplicitTreeLayout.rootLevel(starts.length);
+        ImplicitTreeLayout.computeMaxEnds(
+                starts.length,
+                (fst, snd) -> Long.compare(ends[fst], ends[snd]),
+                (node, index) -> maxEnds[node] = ends[index]);
+    }
+
+    /**
+     * Will build a tree of the intervals [starts[i], ends[i]). The arrays are not modified.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    public static LongImplicitIntervalTree build(long[] starts, long[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Got " + starts.length + " lower and " + ends.length + " upper bounds");
+        }
+        int count = 0;
+        long[] sortedStarts = new long[starts.length];
+        long[] positions = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < ends[i]) {
+                sortedStarts[count] = starts[i];
+                positions[count] = i;
+                count++;
+            }
+        }
+        LongPairSort.sort(sortedStarts, positions, 0, count);
+        long[] sortedEnds = new long[count];
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = (int) positions[i];
+            sortedEnds[i] = ends[indices[i]];
+        }
+        return new LongImplicitIntervalTree(Arrays.copyOf(sortedStarts, count), sortedEnds, indices);
+    }
+
+    /**
+     * Will build a tree of the intervals, where null bounds are encoded by the given operations. Queries report the
+     * position of every interval in the list.
+     */
+    public static LongImplicitIntervalTree build(List<? extends Interval<Long>> intervals, LongOperations operations) {
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        for (int i = 0; i < starts.length; i++) {
+            Interval<Long> interval = intervals.get(i);
+            starts[i] = operations.encodeStart(interval.start());
+            ends[i] = operations.encodeEnd(interval.end());
+        }
+        return build(starts, ends);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Will pass every interval containing the point to the consumer, in ascending order of lower bound.
+     */
+    public void forEachContaining(long point, IntervalConsumer consumer) {
+        query(point, point, consumer);
+    }
+
+    /**
+     * Will pass every interval overlapping [from, to) to the consumer, in ascending order of lower bound.
+     */
+    public void forEachOverlapping(long from, long to, IntervalConsumer consumer) {
+        if (from < to) {
+            query(from, to - 1, consumer);
+        }
+    }
+
+    /**
+     * Will return the number of intervals overlapping [from, to).
+     */
+    public int countOverlapping(long from, long to) {
+        int[] count = new int[1];
+        forEachOverlapping(from, to, (index, start, end) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Passes every interval that ends after from and starts at or before lastStart to the consumer.
+     */
+    private void query(long from, long lastStart, IntervalConsumer consumer) {
+        if (starts.length > 0) {
+            query((1 << rootLevel) - 1, rootLevel, from, lastStart, consumer);
+        }
+    }
+
+    private void query(int node, int level, long from, long lastStart, IntervalConsumer consumer) {
+        if (node >= starts.length) {
+            if (level > 0) {
+                query(node - (1 << (level - 1)), level - 1, from, lastStart, consumer);
+            }
+            return;
+        }
+        if (maxEnds[node] <= from) {
+            return;
+        }
+        if (level <= SCAN_LEVEL) {
+            int last = Math.min(node + (1 << level), starts.length);
+            for (int i = node - (1 << level) + 1; i < last && starts[i] <= lastStart; i++) {
+                if (ends[i] > from) {
+                    consumer.accept(indices[i], starts[i], ends[i]);
+                }
+            }
+            return;
+        }
+        int half = 1 << (level - 1);
+        query(node - half, level - 1, from, lastStart, consumer);
+        if (starts[node] <= lastStart) {
+            if (ends[node] > from) {
+                consumer.accept(indices[node], starts[node], ends[node]);
+            }
+            query(node + half, level - 1, from, lastStart, consumer);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package no.kreso.index;
+
+
+/**
+ * Sorting of intervals stored as two parallel arrays of bounds, by their lower bound. This avoids creating an object
+ * per interval just to be able to sort them.
+ */
+public final class LongPairSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private LongPairSort() {
+    }
+
+    /**
+     * Sorts the range [from, to) of both arrays by the values of keys, moving the values of the other array along.
+     * Uses a three-way quicksort, so that many equal keys do not degrade performance.
+     */
+    public static void sort(long[] keys, long[] values, int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            long pivot = median(keys[from], keys[(from + to) >>> 1], keys[to - 1]);
+            int less = from;
+            int greater = to;
+            int i = from;
+            while (i < greater) {
+                if (keys[i] < pivot) {
+                    swap(keys, values, i++, less++);
+                } else if (keys[i] > pivot) {
+                    swap(keys, values, i, --greater);
+                } else {
+                    i++;
+                }
+            }
+            // Recurse into the smaller partition and loop on the larger, to bound the depth of the stack
+            if (less - from < to - greater) {
+                sort(keys, values, from, less);
+                from = greater;
+            } else {
+                sort(keys, values, greater, to);
+                to = less;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j, j - 1);
+            }
+        }
+    }
+
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(long[] keys, long[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
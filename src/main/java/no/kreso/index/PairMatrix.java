@@ -0,0 +1,82 @@
+package no.kreso.index;
+
+import java.util.BitSet;
+
+
+/**
+ * Boolean matrix over the pairs of a cross product, with a bitset per row. Rows only take up space up to their last set
+ * bit, so sparse results stay small.
+ */
+public final class PairMatrix {
+
+    private final BitSet[] rows;
+    private final int columns;
+
+    PairMatrix(int rows, int columns) {
+        this.rows = new BitSet[rows];
+        this.columns = columns;
+        for (int i = 0; i < rows; i++) {
+            this.rows[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Pair of indices, into the left and the right collection of the cross product.
+     */
+    public interface PairConsumer {
+        void accept(int row, int column);
+    }
+
+    public int rows() {
+        return rows.length;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public boolean get(int row, int column) {
+        return rows[row].get(column);
+    }
+
+    /**
+     * Will return the columns set in the row.
+     */
+    public BitSet row(int row) {
+        return (BitSet) rows[row].clone();
+    }
+
+    /**
+     * Will return the number of pairs set.
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (BitSet row : rows) {
+            cardinality += row.cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Passes every pair set to the consumer, by row and then by column.
+     */
+    public void forEach(PairConsumer consumer) {
+        for (int row = 0; row < rows.length; row++) {
+            BitSet bits = rows[row];
+            for (int column = bits.nextSetBit(0); column >= 0; column = bits.nextSetBit(column + 1)) {
+                consumer.accept(row, column);
+            }
+        }
+    }
+
+    /**
+     * Rows are only ever written by a single thread, since a BitSet is not thread safe.
+     */
+    void set(int row, int column) {
+        rows[row].set(column);
+    }
+
+    void setRow(int row) {
+        rows[row].set(0, columns);
+    }
+}
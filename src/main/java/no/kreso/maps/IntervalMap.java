@@ -0,0 +1,239 @@
+package no.kreso.maps;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+
+/**
+ * Mutable map from non-overlapping ranges to values. Putting a value for a range overwrites the values of that range,
+ * splitting existing entries that only partly overlap it.
+ * <p>
+ * The entries are kept in an immutable snapshot, which is replaced as a whole on every change (copy-on-write). Reads
+ * therefore never block and never see a partially applied change, and any number of threads may read while another
+ * thread writes. Writes are serialized and take O(n) time, which makes this map suitable for data that is read much
+ * more often than it is written, such as tariffs.
+ *
+ * @param <T> The type of the interval
+ * @param <V> The type of the values
+ */
+public final class IntervalMap<T, V> {
+
+    public record Entry<T, V>(Interval<T> range, V value) { }
+
+    private final Operations<T> operations;
+    private final Object lock = new Object();
+    private volatile Snapshot<T, V> snapshot;
+
+    public IntervalMap(Operations<T> operations) {
+        this.operations = operations;
+        this.snapshot = new Snapshot<>(operations, new Object[0], new Object[0]);
+    }
+
+    private IntervalMap(Operations<T> operations, Snapshot<T, V> snapshot) {
+        this.operations = operations;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Will associate the value with every point of the range, replacing previous values. Does nothing if the range is
+     * empty.
+     */
+    public void put(Interval<T> range, V value) {
+        if (operations.isEmpty(range)) {
+            return;
+        }
+        synchronized (lock) {
+            snapshot = snapshot.replace(range, new Object[] {range.start(), range.end()}, new Object[] {value});
+        }
+    }
+
+    /**
+     * Will remove the values of every point of the range.
+     */
+    public void remove(Interval<T> range) {
+        if (operations.isEmpty(range)) {
+            return;
+        }
+        synchronized (lock) {
+            snapshot = snapshot.replace(range, new Object[0], new Object[0]);
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            snapshot = new Snapshot<>(operations, new Object[0], new Object[0]);
+        }
+    }
+
+    /**
+     * Will return the value associated with the point, or null if there is none.
+     */
+    public V get(T point) {
+        return snapshot.get(point);
+    }
+
+    /**
+     * Will return a new, independent map with the entries of this map restricted to the range.
+     */
+    public IntervalMap<T, V> subMap(Interval<T> range) {
+        return new IntervalMap<>(operations, snapshot.subMap(range));
+    }
+
+    /**
+     * The entries of the map in ascending order, as of the time of the call.
+     */
+    public List<Entry<T, V>> entries() {
+        Snapshot<T, V> current = snapshot;
+        return new AbstractList<>() {
+            @Override
+            public Entry<T, V> get(int index) {
+                return new Entry<>(IntervalDefault.of(current.start(index), current.end(index)), current.value(index));
+            }
+
+            @Override
+            public int size() {
+                return current.size();
+            }
+        };
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    public boolean isEmpty() {
+        return snapshot.size() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return entries().toString();
+    }
+
+    /**
+     * Immutable, sorted entries, with the ranges stored as a flat array of bounds as in IntervalSet.
+     */
+    private record Snapshot<T, V>(Operations<T> operations, Object[] bounds, Object[] values) {
+
+        int size() {
+            return values.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        T start(int index) {
+            return (T) bounds[2 * index];
+        }
+
+        @SuppressWarnings("unchecked")
+        T end(int index) {
+            return (T) bounds[2 * index + 1];
+        }
+
+        @SuppressWarnings("unchecked")
+        V value(int index) {
+            return (V) values[index];
+        }
+
+        /**
+         * Searches for the last entry starting at or before the point. The search is written out rather than using
+         * firstIndex, so that lookups do not allocate.
+         */
+        V get(T point) {
+            int low = 0;
+            int high = size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (operations.compareStart(start(middle), point) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            if (high >= 0 && operations.compareStartToEnd(point, end(high)) < 0) {
+                return value(high);
+            }
+            return null;
+        }
+
+        Snapshot<T, V> subMap(Interval<T> range) {
+            if (operations.isEmpty(range)) {
+                return new Snapshot<>(operations, new Object[0], new Object[0]);
+            }
+            int from = firstIndex(i -> operations.compareStartToEnd(range.start(), end(i)) < 0);
+            int to = firstIndex(i -> operations.compareStartToEnd(start(i), range.end()) >= 0);
+            Object[] newBounds = new Object[2 * Math.max(to - from, 0)];
+            Object[] newValues = new Object[Math.max(to - from, 0)];
+            for (int i = from; i < to; i++) {
+                Interval<T> clipped = operations.intersection(IntervalDefault.of(start(i), end(i)), range);
+                newBounds[2 * (i - from)] = clipped.start();
+                newBounds[2 * (i - from) + 1] = clipped.end();
+                newValues[i - from] = value(i);
+            }
+            return new Snapshot<>(operations, newBounds, newValues);
+        }
+
+        /**
+         * Will return a copy of this snapshot where the entries overlapping the range are cut to the parts outside the
+         * range, and the given entries are inserted in their place.
+         */
+        Snapshot<T, V> replace(Interval<T> range, Object[] insertedBounds, Object[] insertedValues) {
+            int from = firstIndex(i -> operations.compareStartToEnd(range.start(), end(i)) < 0);
+            int to = firstIndex(i -> operations.compareStartToEnd(start(i), range.end()) >= 0);
+            boolean keepBefore = from < to && operations.compareStart(start(from), range.start()) < 0;
+            boolean keepAfter = from < to && operations.compareEnd(end(to - 1), range.end()) > 0;
+            int size = from
+                    + (keepBefore ? 1 : 0)
+                    + insertedValues.length
+                    + (keepAfter ? 1 : 0)
+                    + (size() - to);
+            Object[] newBounds = new Object[2 * size];
+            Object[] newValues = new Object[size];
+            int index = 0;
+
+            System.arraycopy(bounds, 0, newBounds, 0, 2 * from);
+            System.arraycopy(values, 0, newValues, 0, from);
+            index += from;
+            if (keepBefore) {
+                newBounds[2 * index] = start(from);
+                newBounds[2 * index + 1] = range.start();
+                newValues[index] = value(from);
+                index++;
+            }
+            System.arraycopy(insertedBounds, 0, newBounds, 2 * index, insertedBounds.length);
+            System.arraycopy(insertedValues, 0, newValues, index, insertedValues.length);
+            index += insertedValues.length;
+            if (keepAfter) {
+                newBounds[2 * index] = range.end();
+                newBounds[2 * index + 1] = end(to - 1);
+                newValues[index] = value(to - 1);
+                index++;
+            }
+            System.arraycopy(bounds, 2 * to, newBounds, 2 * index, 2 * (size() - to));
+            System.arraycopy(values, to, newValues, index, size() - to);
+            return new Snapshot<>(operations, newBounds, newValues);
+        }
+
+        /**
+         * Index of the first entry matching the predicate, which must be false for a prefix of the entries and true
+         * for the rest. Returns the number of entries if there is none.
+         */
+        private int firstIndex(IntPredicate predicate) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (predicate.test(middle)) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package no.kreso.maps;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.maps.IntervalMap.Entry;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * Immutable map from non-overlapping ranges to values, where every change returns a new version of the map and leaves
+ * the old one untouched. The entries are kept in a balanced (AVL) tree ordered by their lower bound, and a change only
+ * copies the nodes on the paths it touches, so versions share all other nodes.
+ * <p>
+ * Putting or removing a range splits the tree at both bounds of the range, cutting the entries that straddle a bound,
+ * and joins the outer parts again, so that it takes O(log n) time however many entries the range covers. Keeping a
+ * version per request is therefore cheap. Null is interpreted by the given Operations.
+ *
+ * @param <T> The type of the interval
+ * @param <V> The type of the values
+ */
+public final class PersistentIntervalMap<T, V> {
+
+    private final Operations<T> operations;
+    private final Node<T, V> root;
+
+    private PersistentIntervalMap(Operations<T> operations, Node<T, V> root) {
+        this.operations = operations;
+        this.root = root;
+    }
+
+    public static <T, V> PersistentIntervalMap<T, V> empty(Operations<T> operations) {
+        return new PersistentIntervalMap<>(operations, null);
+    }
+
+    /**
+     * Will return a map where the value is associated with every point of the range, replacing previous values. Returns
+     * this map if the range is empty.
+     */
+    public PersistentIntervalMap<T, V> put(Interval<T> range, V value) {
+        if (operations.isEmpty(range)) {
+            return this;
+        }
+        Split<T, V> below = split(root, range.start(), false);
+        Split<T, V> above = split(below.right, range.end(), true);
+        Node<T, V> entry = new Node<>(range.start(), range.end(), value, null, null);
+        return new PersistentIntervalMap<>(operations, join(below.left, entry, above.right));
+    }
+
+    /**
+     * Like {@link #put}, but also merges the range with the entries adjacent to it that have an equal value, so that
+     * no two adjacent entries have equal values if the map is only changed by this method and {@link #remove}.
+     */
+    public PersistentIntervalMap<T, V> putCoalescing(Interval<T> range, V value) {
+        if (operations.isEmpty(range)) {
+            return this;
+        }
+        Split<T, V> below = split(root, range.start(), false);
+        Split<T, V> above = split(below.right, range.end(), true);
+        Node<T, V> before = below.left;
+        Node<T, V> after = above.right;
+        T start = range.start();
+        T end = range.end();
+        Node<T, V> last = last(before);
+        if (last != null && operations.compareStartToEnd(start, last.end) == 0 && Objects.equals(last.value, value)) {
+            start = last.start;
+            before = removeLast(before);
+        }
+        Node<T, V> first = first(after);
+        if (first != null && operations.compareStartToEnd(first.start, end) == 0 && Objects.equals(first.value, value)) {
+            end = first.end;
+            after = removeFirst(after);
+        }
+        return new PersistentIntervalMap<>(operations, join(before, new Node<>(start, end, value, null, null), after));
+    }
+
+    /**
+     * Will return a map without values for the points of the range. Returns this map if the range is empty.
+     */
+    public PersistentIntervalMap<T, V> remove(Interval<T> range) {
+        if (operations.isEmpty(range)) {
+            return this;
+        }
+        Split<T, V> below = split(root, range.start(), false);
+        Split<T, V> above = split(below.right, range.end(), true);
+        return new PersistentIntervalMap<>(operations, join(below.left, above.right));
+    }
+
+    /**
+     * Will return the value associated with the point, or null if there is none.
+     */
+    public V get(T point) {
+        Node<T, V> node = root;
+        while (node != null) {
+            if (operations.compareStart(point, node.start) < 0) {
+                node = node.left;
+            } else if (operations.compareStartToEnd(point, node.end) < 0) {
+                return node.value;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Will return the entry containing the point, or null if there is none.
+     */
+    public Entry<T, V> entry(T point) {
+        Node<T, V> node = root;
+        while (node != null) {
+            if (operations.compareStart(point, node.start) < 0) {
+                node = node.left;
+            } else if (operations.compareStartToEnd(point, node.end) < 0) {
+                return node.entry();
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Will return the entries in ascending order.
+     */
+    public List<Entry<T, V>> entries() {
+        List<Entry<T, V>> entries = new ArrayList<>(size());
+        collect(root, entries);
+        return entries;
+    }
+
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public String toString() {
+        return entries().toString();
+    }
+
+    private static <T, V> void collect(Node<T, V> node, List<Entry<T, V>> entries) {
+        while (node != null) {
+            collect(node.left, entries);
+            entries.add(node.entry());
+            node = node.right;
+        }
+    }
+
+    private record Split<T, V>(Node<T, V> left, Node<T, V> right) { }
+
+    /**
+     * Splits the tree into the points before the bound and the points from the bound, cutting the entry that straddles
+     * the bound, if any.
+     *
+     * @param isEnd Whether the bound is an upper bound, which decides how null is interpreted.
+     */
+    private Split<T, V> split(Node<T, V> node, T bound, boolean isEnd) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int startComparison = isEnd
+                ? operations.compareStartToEnd(node.start, bound)
+                : operations.compareStart(node.start, bound);
+        if (startComparison >= 0) {
+            Split<T, V> split = split(node.left, bound, isEnd);
+            return new Split<>(split.left, join(split.right, node, node.right));
+        }
+        int endComparison = isEnd
+                ? operations.compareEnd(node.end, bound)
+                : -operations.compareStartToEnd(bound, node.end);
+        if (endComparison <= 0) {
+            Split<T, V> split = split(node.right, bound, isEnd);
+            return new Split<>(join(node.left, node, split.left), split.right);
+        }
+        Node<T, V> before = new Node<>(node.start, bound, node.value, null, null);
+        Node<T, V> after = new Node<>(bound, node.end, node.value, null, null);
+        return new Split<>(join(node.left, before, null), join(null, after, node.right));
+    }
+
+    /**
+     * Will return a tree of the left tree, the entry of the middle node and the right tree, where every entry of the
+     * left tree is before the middle, and every entry of the right tree after it.
+     */
+    private static <T, V> Node<T, V> join(Node<T, V> left, Node<T, V> middle, Node<T, V> right) {
+        if (height(left) > height(right) + 1) {
+            return joinRight(left, middle, right);
+        }
+        if (height(right) > height(left) + 1) {
+            return joinLeft(left, middle, right);
+        }
+        return middle.with(left, right);
+    }
+
+    private static <T, V> Node<T, V> joinRight(Node<T, V> left, Node<T, V> middle, Node<T, V> right) {
+        if (height(left.right) <= height(right) + 1) {
+            Node<T, V> joined = middle.with(left.right, right);
+            if (height(joined) <= height(left.left) + 1) {
+                return left.with(left.left, joined);
+            }
+            return rotateLeft(left.with(left.left, rotateRight(joined)));
+        }
+        Node<T, V> joined = joinRight(left.right, middle, right);
+        Node<T, V> result = left.with(left.left, joined);
+        return height(joined) <= height(left.left) + 1 ? result : rotateLeft(result);
+    }
+
+    private static <T, V> Node<T, V> joinLeft(Node<T, V> left, Node<T, V> middle, Node<T, V> right) {
+        if (height(right.left) <= height(left) + 1) {
+            Node<T, V> joined = middle.with(left, right.left);
+            if (height(joined) <= height(right.right) + 1) {
+                return right.with(joined, right.right);
+            }
+            return rotateRight(right.with(rotateLeft(joined), right.right));
+        }
+        Node<T, V> joined = joinLeft(left, middle, right.left);
+        Node<T, V> result = right.with(joined, right.right);
+        return height(joined) <= height(right.right) + 1 ? result : rotateRight(result);
+    }
+
+    /**
+     * Will return a tree of the two trees, where every entry of the left tree is before every entry of the right tree.
+     */
+    private static <T, V> Node<T, V> join(Node<T, V> left, Node<T, V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return join(removeLast(left), last(left), right);
+    }
+
+    private static <T, V> Node<T, V> first(Node<T, V> node) {
+        while (node != null && node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static <T, V> Node<T, V> last(Node<T, V> node) {
+        while (node != null && node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static <T, V> Node<T, V> removeFirst(Node<T, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return join(removeFirst(node.left), node, node.right);
+    }
+
+    private static <T, V> Node<T, V> removeLast(Node<T, V> node) {
+        if (node.right == null) {
+            return node.left;
+        }
+        return join(node.left, node, removeLast(node.right));
+    }
+
+    private static <T, V> Node<T, V> rotateLeft(Node<T, V> node) {
+        Node<T, V> pivot = node.right;
+        return pivot.with(node.with(node.left, pivot.left), pivot.right);
+    }
+
+    private static <T, V> Node<T, V> rotateRight(Node<T, V> node) {
+        Node<T, V> pivot = node.left;
+        return pivot.with(pivot.left, node.with(pivot.right, node.right));
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T, V> {
+
+        private final T start;
+        private final T end;
+        private final V value;
+        private final Node<T, V> left;
+        private final Node<T, V> right;
+        private final int height;
+        private final int size;
+
+        private Node(T start, T end, V value, Node<T, V> left, Node<T, V> right) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + (left == null ? 0 : left.size) + (right == null ? 0 : right.size);
+        }
+
+        /**
+         * Will return a node with the entry of this node and the given children, or this node if they are the same.
+         */
+        private Node<T, V> with(Node<T, V> left, Node<T, V> right) {
+            return left == this.left && right == this.right ? this : new Node<>(start, end, value, left, right);
+        }
+
+        private Entry<T, V> entry() {
+            return new Entry<>(IntervalDefault.of(start, end), value);
+        }
+    }
+}
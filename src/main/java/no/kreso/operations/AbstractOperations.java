@@ -0,0 +1,85 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+
+
+/**
+ * Implementation of the operations in terms of the three bound comparisons. Subclasses decide how bounds are compared,
+ * and in particular how null is interpreted.
+ */
+abstract class AbstractOperations<T> implements Operations<T> {
+
+    @Override
+    public boolean subsetOf(Interval<T> left, Interval<T> right) {
+        if (isEmpty(left)) {
+            return true;
+        }
+        if (isEmpty(right)) {
+            return false;
+        }
+        return compareStart(left.start(), right.start()) >= 0 && compareEnd(left.end(), right.end()) <= 0;
+    }
+
+    @Override
+    public boolean isEmpty(Interval<T> interval) {
+        return compareStartToEnd(interval.start(), interval.end()) >= 0;
+    }
+
+    @Override
+    public Interval<T> intersection(Interval<T> left, Interval<T> right) {
+        if (isEmpty(left)) {
+            return left;
+        }
+        if (isEmpty(right)) {
+            return right;
+        }
+        return validate(
+                maxStart(left.start(), right.start()),
+                minEnd(left.end(), right.end())
+        );
+    }
+
+    @Override
+    public Interval<T> union(Interval<T> left, Interval<T> right) {
+        if (isEmpty(left)) {
+            return right;
+        }
+        if (isEmpty(right)) {
+            return left;
+        }
+        boolean rightStartsAfterLeftEnds = compareStartToEnd(right.start(), left.end()) > 0;
+        if (rightStartsAfterLeftEnds) {
+            return validate(left.end(), left.end());
+        }
+        boolean leftStartsAfterRightEnds = compareStartToEnd(left.start(), right.end()) > 0;
+        if (leftStartsAfterRightEnds) {
+            return validate(left.start(), left.start());
+        }
+        return validate(
+                minStart(left.start(), right.start()),
+                maxEnd(left.end(), right.end())
+        );
+    }
+
+    @Override
+    public Interval<T> validate(T start, T end) {
+        return IntervalDefault.of(start, compareStartToEnd(start, end) > 0 ? start : end);
+    }
+
+    private T minStart(T fst, T snd) {
+        return compareStart(fst, snd) < 0 ? fst : snd;
+    }
+
+    private T minEnd(T fst, T snd) {
+        return compareEnd(fst, snd) < 0 ? fst : snd;
+    }
+
+    private T maxStart(T fst, T snd) {
+        return compareStart(fst, snd) > 0 ? fst : snd;
+    }
+
+    private T maxEnd(T fst, T snd) {
+        return compareEnd(fst, snd) > 0 ? fst : snd;
+    }
+}
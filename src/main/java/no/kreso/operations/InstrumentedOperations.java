@@ -0,0 +1,314 @@
+package no.kreso.operations;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import no.kreso.interval.Interval;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+
+/**
+ * Decorator of Operations that collects metrics about how it is used: the number of calls to every method, and
+ * optionally the number of empty intervals returned, the number of comparator invocations and the latency of a sample
+ * of the calls. Counters are striped (LongAdder), so that threads using the same instance do not contend.
+ * <p>
+ * Latencies are only measured for one in every samplingInterval calls, picked at random, and are kept in histograms
+ * with power-of-two buckets. Sampled calls can additionally be recorded as JFR events. Counting empty results takes an
+ * extra emptiness check on every method returning an interval, so it is only done when asked for, independently of
+ * sampling. Otherwise, the overhead is a single counter increment per call.
+ *
+ * @param <T> The type of the interval
+ */
+public final class InstrumentedOperations<T> implements Operations<T> {
+
+    public enum Method {
+        SUBSET_OF,
+        IS_EMPTY,
+        INTERSECTION,
+        UNION,
+        VALIDATE,
+        COMPARE_START,
+        COMPARE_END,
+        COMPARE_START_TO_END
+    }
+
+    /**
+     * Number of buckets in a latency histogram. Bucket i counts the latencies l where 2^(i-1) <= l < 2^i nanoseconds,
+     * except bucket 0, which counts latencies of 0.
+     */
+    public static final int HISTOGRAM_BUCKETS = Long.SIZE + 1;
+
+    private static final Method[] METHODS = Method.values();
+
+    private final Operations<T> delegate;
+    /**
+     * Used for the emptiness checks of the results, so that these checks are not counted as comparator invocations.
+     */
+    private final Operations<T> uncounted;
+    private final boolean countEmptyResults;
+    private final int samplingInterval;
+    private final boolean jfrEvents;
+    private final LongAdder[] calls = newAdders(METHODS.length);
+    private final LongAdder emptyResults = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder[][] histograms;
+
+    /**
+     * Counts calls only.
+     */
+    public InstrumentedOperations(Operations<T> delegate) {
+        this(delegate, false, 0, false);
+    }
+
+    /**
+     * @param countEmptyResults Whether to count the empty intervals returned.
+     * @param samplingInterval Measure the latency of one in this many calls, or never if 0.
+     * @param jfrEvents Whether to record the sampled calls as JFR events.
+     */
+    public InstrumentedOperations(
+            Operations<T> delegate,
+            boolean countEmptyResults,
+            int samplingInterval,
+            boolean jfrEvents
+    ) {
+        this(comparator -> delegate, null, countEmptyResults, samplingInterval, jfrEvents);
+    }
+
+    private InstrumentedOperations(
+            Function<Comparator<T>, Operations<T>> factory,
+            Comparator<T> comparator,
+            boolean countEmptyResults,
+            int samplingInterval,
+            boolean jfrEvents
+    ) {
+        if (samplingInterval < 0) {
+            throw new IllegalArgumentException("Sampling interval must not be negative: " + samplingInterval);
+        }
+        this.countEmptyResults = countEmptyResults;
+        this.samplingInterval = samplingInterval;
+        this.jfrEvents = jfrEvents;
+        this.histograms = new LongAdder[METHODS.length][];
+        for (int i = 0; i < METHODS.length; i++) {
+            histograms[i] = samplingInterval > 0 ? newAdders(HISTOGRAM_BUCKETS) : new LongAdder[0];
+        }
+        if (comparator == null) {
+            this.delegate = factory.apply(null);
+            this.uncounted = delegate;
+        } else {
+            this.delegate = factory.apply((fst, snd) -> {
+                comparisons.increment();
+                return comparator.compare(fst, snd);
+            });
+            this.uncounted = factory.apply(comparator);
+        }
+    }
+
+    /**
+     * Creates operations that also count comparator invocations. The factory is given a comparator that counts its
+     * invocations before delegating to the given comparator, for example
+     * {@code c -> new OperationsDefault<>(c, NEGATIVE_INFINITY, POSITIVE_INFINITY)}.
+     *
+     * @param countEmptyResults Whether to count the empty intervals returned.
+     * @param samplingInterval Measure the latency of one in this many calls, or never if 0.
+     * @param jfrEvents Whether to record the sampled calls as JFR events.
+     */
+    public static <T> InstrumentedOperations<T> countingComparisons(
+            Function<Comparator<T>, Operations<T>> factory,
+            Comparator<T> comparator,
+            boolean countEmptyResults,
+            int samplingInterval,
+            boolean jfrEvents
+    ) {
+        return new InstrumentedOperations<>(factory, comparator, countEmptyResults, samplingInterval, jfrEvents);
+    }
+
+    @Override
+    public boolean subsetOf(Interval<T> left, Interval<T> right) {
+        boolean sampled = begin(Method.SUBSET_OF);
+        long started = sampled ? System.nanoTime() : 0;
+        boolean result = delegate.subsetOf(left, right);
+        if (sampled) {
+            end(Method.SUBSET_OF, started);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty(Interval<T> interval) {
+        boolean sampled = begin(Method.IS_EMPTY);
+        long started = sampled ? System.nanoTime() : 0;
+        boolean result = delegate.isEmpty(interval);
+        if (sampled) {
+            end(Method.IS_EMPTY, started);
+        }
+        return result;
+    }
+
+    @Override
+    public Interval<T> intersection(Interval<T> left, Interval<T> right) {
+        boolean sampled = begin(Method.INTERSECTION);
+        long started = sampled ? System.nanoTime() : 0;
+        Interval<T> result = delegate.intersection(left, right);
+        if (sampled) {
+            end(Method.INTERSECTION, started);
+        }
+        return countEmpty(result);
+    }
+
+    @Override
+    public Interval<T> union(Interval<T> left, Interval<T> right) {
+        boolean sampled = begin(Method.UNION);
+        long started = sampled ? System.nanoTime() : 0;
+        Interval<T> result = delegate.union(left, right);
+        if (sampled) {
+            end(Method.UNION, started);
+        }
+        return countEmpty(result);
+    }
+
+    @Override
+    public Interval<T> validate(T start, T end) {
+        boolean sampled = begin(Method.VALIDATE);
+        long started = sampled ? System.nanoTime() : 0;
+        Interval<T> result = delegate.validate(start, end);
+        if (sampled) {
+            end(Method.VALIDATE, started);
+        }
+        return countEmpty(result);
+    }
+
+    @Override
+    public int compareStart(T fst, T snd) {
+        boolean sampled = begin(Method.COMPARE_START);
+        long started = sampled ? System.nanoTime() : 0;
+        int result = delegate.compareStart(fst, snd);
+        if (sampled) {
+            end(Method.COMPARE_START, started);
+        }
+        return result;
+    }
+
+    @Override
+    public int compareEnd(T fst, T snd) {
+        boolean sampled = begin(Method.COMPARE_END);
+        long started = sampled ? System.nanoTime() : 0;
+        int result = delegate.compareEnd(fst, snd);
+        if (sampled) {
+            end(Method.COMPARE_END, started);
+        }
+        return result;
+    }
+
+    @Override
+    public int compareStartToEnd(T start, T end) {
+        boolean sampled = begin(Method.COMPARE_START_TO_END);
+        long started = sampled ? System.nanoTime() : 0;
+        int result = delegate.compareStartToEnd(start, end);
+        if (sampled) {
+            end(Method.COMPARE_START_TO_END, started);
+        }
+        return result;
+    }
+
+    /**
+     * Will return the current values of the metrics. The values are not an atomic snapshot: calls made while the
+     * snapshot is taken may be partly reflected.
+     */
+    public Snapshot snapshot() {
+        Map<Method, Long> callCounts = new EnumMap<>(Method.class);
+        Map<Method, long[]> latencies = new EnumMap<>(Method.class);
+        for (Method method : METHODS) {
+            callCounts.put(method, calls[method.ordinal()].sum());
+            LongAdder[] histogram = histograms[method.ordinal()];
+            long[] buckets = new long[histogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                buckets[i] = histogram[i].sum();
+            }
+            latencies.put(method, buckets);
+        }
+        return new Snapshot(callCounts, emptyResults.sum(), comparisons.sum(), latencies);
+    }
+
+    /**
+     * @param calls Number of calls per method.
+     * @param emptyResults Number of empty intervals returned by intersection, union and validate, or 0 if they are not
+     *                     counted.
+     * @param comparisons Number of comparator invocations, or 0 if they are not counted.
+     * @param latencies Histogram of sampled latencies per method, see {@link #HISTOGRAM_BUCKETS}. Empty if sampling is
+     *                  turned off.
+     */
+    public record Snapshot(
+            Map<Method, Long> calls,
+            long emptyResults,
+            long comparisons,
+            Map<Method, long[]> latencies
+    ) {
+        public long calls(Method method) {
+            return calls.get(method);
+        }
+
+        public long[] latencies(Method method) {
+            return latencies.get(method).clone();
+        }
+    }
+
+    /**
+     * Counts the call, and returns true if its latency is to be measured. The decision is kept apart from the start
+     * time, since System.nanoTime has an arbitrary origin and may return any long, negative ones included.
+     */
+    private boolean begin(Method method) {
+        calls[method.ordinal()].increment();
+        return samplingInterval > 0 && ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+    }
+
+    private void end(Method method, long started) {
+        long latency = Math.max(System.nanoTime() - started, 0);
+        histograms[method.ordinal()][Long.SIZE - Long.numberOfLeadingZeros(latency)].increment();
+        if (jfrEvents) {
+            OperationEvent event = new OperationEvent();
+            if (event.shouldCommit()) {
+                event.method = method.name();
+                event.latency = latency;
+                event.commit();
+            }
+        }
+    }
+
+    private Interval<T> countEmpty(Interval<T> result) {
+        if (countEmptyResults && uncounted.isEmpty(result)) {
+            emptyResults.increment();
+        }
+        return result;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    @Name("no.kreso.Operation")
+    @Label("Interval Operation")
+    @Category("Interval")
+    @Description("A sampled call to an instrumented Operations")
+    static final class OperationEvent extends Event {
+
+        @Label("Method")
+        String method;
+
+        @Label("Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+    }
+}
@@ -0,0 +1,214 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.OperationsDefault.NullInterpretation;
+
+import java.util.function.ToLongFunction;
+
+
+/**
+ * Implementation of Operations that compares bounds through an order-preserving mapping to long, such as
+ * {@code LocalDate::toEpochDay}, instead of through a comparator. Null is mapped to one of the sentinel values of
+ * {@link LongOperations}, according to its interpretation, so the mapping must never produce either of those values.
+ * <p>
+ * The intervals returned by this class keep the keys of their bounds next to the bounds themselves. When such an
+ * interval is passed back to the same instance, every comparison is a comparison of two longs, and the key extractor
+ * is not called at all. Other intervals are accepted too, in which case their keys are extracted on every call.
+ * <p>
+ * The returned intervals are equal only to themselves, since no equals could be symmetric with the records of other
+ * implementations, such as IntervalDefault. Compare their bounds instead.
+ *
+ * @param <T> The type of the interval
+ */
+public final class KeyedOperations<T> implements Operations<T> {
+
+    private final ToLongFunction<T> key;
+    private final long nullStart;
+    private final long nullEnd;
+
+    /**
+     * @param key Order-preserving mapping of the bounds to long.
+     * @param lower How a null value at the lower bound of the interval should be interpreted.
+     * @param upper How a null value at the upper bound of the interval should be interpreted.
+     */
+    public KeyedOperations(ToLongFunction<T> key, NullInterpretation lower, NullInterpretation upper) {
+        LongOperations sentinels = new LongOperationsDefault(lower, upper);
+        this.key = key;
+        this.nullStart = sentinels.encodeStart(null);
+        this.nullEnd = sentinels.encodeEnd(null);
+    }
+
+    /**
+     * Keyed counterpart of {@link OperationsDefault#unbound()}.
+     */
+    public static <U> Operations<U> unbound(ToLongFunction<U> key) {
+        return new KeyedOperations<>(key, NullInterpretation.NEGATIVE_INFINITY, NullInterpretation.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Keyed counterpart of {@link OperationsDefault#leftBound()}.
+     */
+    public static <U> Operations<U> leftBound(ToLongFunction<U> key) {
+        return new KeyedOperations<>(key, NullInterpretation.POSITIVE_INFINITY, NullInterpretation.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Keyed counterpart of {@link OperationsDefault#rightBound()}.
+     */
+    public static <U> Operations<U> rightBound(ToLongFunction<U> key) {
+        return new KeyedOperations<>(key, NullInterpretation.NEGATIVE_INFINITY, NullInterpretation.NEGATIVE_INFINITY);
+    }
+
+    @Override
+    public boolean subsetOf(Interval<T> left, Interval<T> right) {
+        long leftStart = startKey(left);
+        long leftEnd = endKey(left);
+        if (leftStart >= leftEnd) {
+            return true;
+        }
+        long rightStart = startKey(right);
+        long rightEnd = endKey(right);
+        if (rightStart >= rightEnd) {
+            return false;
+        }
+        return leftStart >= rightStart && leftEnd <= rightEnd;
+    }
+
+    @Override
+    public boolean isEmpty(Interval<T> interval) {
+        return startKey(interval) >= endKey(interval);
+    }
+
+    @Override
+    public Interval<T> intersection(Interval<T> left, Interval<T> right) {
+        long leftStart = startKey(left);
+        long leftEnd = endKey(left);
+        if (leftStart >= leftEnd) {
+            return left;
+        }
+        long rightStart = startKey(right);
+        long rightEnd = endKey(right);
+        if (rightStart >= rightEnd) {
+            return right;
+        }
+        return validate(
+                leftStart > rightStart ? left.start() : right.start(),
+                leftStart > rightStart ? leftStart : rightStart,
+                leftEnd < rightEnd ? left.end() : right.end(),
+                leftEnd < rightEnd ? leftEnd : rightEnd
+        );
+    }
+
+    @Override
+    public Interval<T> union(Interval<T> left, Interval<T> right) {
+        long leftStart = startKey(left);
+        long leftEnd = endKey(left);
+        if (leftStart >= leftEnd) {
+            return right;
+        }
+        long rightStart = startKey(right);
+        long rightEnd = endKey(right);
+        if (rightStart >= rightEnd) {
+            return left;
+        }
+        if (rightStart > leftEnd) {
+            return validate(left.end(), leftEnd, left.end(), leftEnd);
+        }
+        if (leftStart > rightEnd) {
+            return validate(left.start(), leftStart, left.start(), leftStart);
+        }
+        return validate(
+                leftStart < rightStart ? left.start() : right.start(),
+                leftStart < rightStart ? leftStart : rightStart,
+                leftEnd > rightEnd ? left.end() : right.end(),
+                leftEnd > rightEnd ? leftEnd : rightEnd
+        );
+    }
+
+    @Override
+    public Interval<T> validate(T start, T end) {
+        return validate(start, startKey(start), end, endKey(end));
+    }
+
+    @Override
+    public int compareStart(T fst, T snd) {
+        return Long.compare(startKey(fst), startKey(snd));
+    }
+
+    @Override
+    public int compareEnd(T fst, T snd) {
+        return Long.compare(endKey(fst), endKey(snd));
+    }
+
+    @Override
+    public int compareStartToEnd(T start, T end) {
+        return Long.compare(startKey(start), endKey(end));
+    }
+
+    /**
+     * Validates bounds whose keys are already known. A bound taken from the other side of an interval, as in the union of
+     * disjoint intervals, is never null, so its key is the same on both sides.
+     */
+    private Interval<T> validate(T start, long startKey, T end, long endKey) {
+        return startKey > endKey
+                ? new KeyedInterval<>(this, start, start, startKey, startKey)
+                : new KeyedInterval<>(this, start, end, startKey, endKey);
+    }
+
+    private long startKey(T start) {
+        return start == null ? nullStart : key.applyAsLong(start);
+    }
+
+    private long endKey(T end) {
+        return end == null ? nullEnd : key.applyAsLong(end);
+    }
+
+    private long startKey(Interval<T> interval) {
+        if (interval instanceof KeyedInterval<T> keyed && keyed.owner == this) {
+            return keyed.startKey;
+        }
+        return startKey(interval.start());
+    }
+
+    private long endKey(Interval<T> interval) {
+        if (interval instanceof KeyedInterval<T> keyed && keyed.owner == this) {
+            return keyed.endKey;
+        }
+        return endKey(interval.end());
+    }
+
+    /**
+     * Interval that carries the keys of its bounds, as computed by the instance that created it.
+     */
+    private static final class KeyedInterval<T> implements Interval<T> {
+
+        private final KeyedOperations<T> owner;
+        private final T start;
+        private final T end;
+        private final long startKey;
+        private final long endKey;
+
+        private KeyedInterval(KeyedOperations<T> owner, T start, T end, long startKey, long endKey) {
+            this.owner = owner;
+            this.start = start;
+            this.end = end;
+            this.startKey = startKey;
+            this.endKey = endKey;
+        }
+
+        @Override
+        public T start() {
+            return start;
+        }
+
+        @Override
+        public T end() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "KeyedInterval[start=" + start + ", end=" + end + "]";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package no.kreso.operations;
+
+import java.util.Comparator;
+
+
+/**
+ * Operations treating null as positive infinity at both bounds. Equivalent to OperationsDefault with
+ * POSITIVE_INFINITY and POSITIVE_INFINITY.
+ */
+final class LeftBoundOperations<T> extends AbstractOperations<T> {
+
+    private final Comparator<T> comparator;
+
+    LeftBoundOperations(Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public int compareStart(T fst, T snd) {
+        if (fst == null) {
+            return snd == null ? 0 : 1;
+        }
+        if (snd == null) {
+            return -1;
+        }
+        return comparator.compare(fst, snd);
+    }
+
+    @Override
+    public int compareEnd(T fst, T snd) {
+        if (fst == null) {
+            return snd == null ? 0 : 1;
+        }
+        if (snd == null) {
+            return -1;
+        }
+        return comparator.compare(fst, snd);
+    }
+
+    @Override
+    public int compareStartToEnd(T start, T end) {
+        if (start == null) {
+            return end == null ? 0 : 1;
+        }
+        if (end == null) {
+            return -1;
+        }
+        return comparator.compare(start, end);
+    }
+}
@@ -0,0 +1,73 @@
+package no.kreso.operations;
+
+
+/**
+ * Counterpart of the Operations interface for intervals whose bounds are primitive longs. Instead of null, positive and
+ * negative infinity are represented by the sentinel values {@link #POSITIVE_INFINITY} and {@link #NEGATIVE_INFINITY},
+ * which means that these two values can not be used as regular bounds. Like Operations, implementations should not
+ * throw on invalid inputs, but treat them as the empty interval.
+ * <p>
+ * Since returning an interval would require an allocation, every operation that produces an interval is split into one
+ * method per bound.
+ */
+public interface LongOperations {
+
+    long NEGATIVE_INFINITY = Long.MIN_VALUE;
+    long POSITIVE_INFINITY = Long.MAX_VALUE;
+
+    /**
+     * See {@link Operations#subsetOf}.
+     */
+    boolean subsetOf(long leftStart, long leftEnd, long rightStart, long rightEnd);
+
+    /**
+     * See {@link Operations#isEmpty}.
+     */
+    boolean isEmpty(long start, long end);
+
+    /**
+     * Lower bound of the interval returned by {@link Operations#intersection}.
+     */
+    long intersectionStart(long leftStart, long leftEnd, long rightStart, long rightEnd);
+
+    /**
+     * Upper bound of the interval returned by {@link Operations#intersection}.
+     */
+    long intersectionEnd(long leftStart, long leftEnd, long rightStart, long rightEnd);
+
+    /**
+     * Lower bound of the interval returned by {@link Operations#union}.
+     */
+    long unionStart(long leftStart, long leftEnd, long rightStart, long rightEnd);
+
+    /**
+     * Upper bound of the interval returned by {@link Operations#union}.
+     */
+    long unionEnd(long leftStart, long leftEnd, long rightStart, long rightEnd);
+
+    /**
+     * Upper bound of the interval returned by {@link Operations#validate}. The lower bound is never changed by
+     * validation, so no corresponding method exists for it.
+     */
+    long validateEnd(long start, long end);
+
+    /**
+     * Converts a nullable lower bound into its primitive representation.
+     */
+    long encodeStart(Long start);
+
+    /**
+     * Converts a nullable upper bound into its primitive representation.
+     */
+    long encodeEnd(Long end);
+
+    /**
+     * Converts a primitive lower bound back into its nullable representation.
+     */
+    Long decodeStart(long start);
+
+    /**
+     * Converts a primitive upper bound back into its nullable representation.
+     */
+    Long decodeEnd(long end);
+}
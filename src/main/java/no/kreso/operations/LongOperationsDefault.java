@@ -0,0 +1,147 @@
+package no.kreso.operations;
+
+import no.kreso.operations.OperationsDefault.NullInterpretation;
+
+
+/**
+ * Default implementation of LongOperations. Once null has been replaced by the sentinel matching its interpretation,
+ * every comparison made by OperationsDefault reduces to a plain comparison of longs. The NullInterpretation is
+ * therefore only needed when converting bounds to and from their nullable representation, and the operations
+ * themselves give the same results as the corresponding OperationsDefault without boxing or allocating.
+ */
+public final class LongOperationsDefault implements LongOperations {
+
+    private final long nullStart;
+    private final long nullEnd;
+
+    /**
+     * @param lower How a null value at the lower bound of the interval should be interpreted.
+     * @param upper How a null value at the upper bound of the interval should be interpreted.
+     */
+    public LongOperationsDefault(NullInterpretation lower, NullInterpretation upper) {
+        this.nullStart = sentinel(lower);
+        this.nullEnd = sentinel(upper);
+    }
+
+    /**
+     * Long counterpart of {@link OperationsDefault#unbound()}.
+     */
+    public static LongOperations unbound() {
+        return new LongOperationsDefault(NullInterpretation.NEGATIVE_INFINITY, NullInterpretation.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Long counterpart of {@link OperationsDefault#leftBound()}.
+     */
+    public static LongOperations leftBound() {
+        return new LongOperationsDefault(NullInterpretation.POSITIVE_INFINITY, NullInterpretation.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Long counterpart of {@link OperationsDefault#rightBound()}.
+     */
+    public static LongOperations rightBound() {
+        return new LongOperationsDefault(NullInterpretation.NEGATIVE_INFINITY, NullInterpretation.NEGATIVE_INFINITY);
+    }
+
+    @Override
+    public boolean subsetOf(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+        if (isEmpty(leftStart, leftEnd)) {
+            return true;
+        }
+        if (isEmpty(rightStart, rightEnd)) {
+            return false;
+        }
+        return leftStart >= rightStart && leftEnd <= rightEnd;
+    }
+
+    @Override
+    public boolean isEmpty(long start, long end) {
+        return start >= end;
+    }
+
+    @Override
+    public long intersectionStart(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+        if (isEmpty(leftStart, leftEnd)) {
+            return leftStart;
+        }
+        if (isEmpty(rightStart, rightEnd)) {
+            return rightStart;
+        }
+        return Math.max(leftStart, rightStart);
+    }
+
+    @Override
+    public long intersectionEnd(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+        if (isEmpty(leftStart, leftEnd)) {
+            return leftEnd;
+        }
+        if (isEmpty(rightStart, rightEnd)) {
+            return rightEnd;
+        }
+        return validateEnd(Math.max(leftStart, rightStart), Math.min(leftEnd, rightEnd));
+    }
+
+    @Override
+    public long unionStart(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+        if (isEmpty(leftStart, leftEnd)) {
+            return rightStart;
+        }
+        if (isEmpty(rightStart, rightEnd)) {
+            return leftStart;
+        }
+        if (rightStart > leftEnd) {
+            return leftEnd;
+        }
+        if (leftStart > rightEnd) {
+            return leftStart;
+        }
+        return Math.min(leftStart, rightStart);
+    }
+
+    @Override
+    public long unionEnd(long leftStart, long leftEnd, long rightStart, long rightEnd) {
+        if (isEmpty(leftStart, leftEnd)) {
+            return rightEnd;
+        }
+        if (isEmpty(rightStart, rightEnd)) {
+            return leftEnd;
+        }
+        if (rightStart > leftEnd) {
+            return leftEnd;
+        }
+        if (leftStart > rightEnd) {
+            return leftStart;
+        }
+        return Math.max(leftEnd, rightEnd);
+    }
+
+    @Override
+    public long validateEnd(long start, long end) {
+        return start > end ? start : end;
+    }
+
+    @Override
+    public long encodeStart(Long start) {
+        return start == null ? nullStart : start;
+    }
+
+    @Override
+    public long encodeEnd(Long end) {
+        return end == null ? nullEnd : end;
+    }
+
+    @Override
+    public Long decodeStart(long start) {
+        return start == nullStart ? null : start;
+    }
+
+    @Override
+    public Long decodeEnd(long end) {
+        return end == nullEnd ? null : end;
+    }
+
+    private static long sentinel(NullInterpretation interpretation) {
+        return interpretation == NullInterpretation.POSITIVE_INFINITY ? POSITIVE_INFINITY : NEGATIVE_INFINITY;
+    }
+}
@@ -0,0 +1,31 @@
+package no.kreso.operations;
+
+import java.util.Comparator;
+
+
+/**
+ * Operations for bounds that are never null. Every comparison goes straight to the comparator.
+ */
+final class NonNullOperations<T> extends AbstractOperations<T> {
+
+    private final Comparator<T> comparator;
+
+    NonNullOperations(Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public int compareStart(T fst, T snd) {
+        return comparator.compare(fst, snd);
+    }
+
+    @Override
+    public int compareEnd(T fst, T snd) {
+        return comparator.compare(fst, snd);
+    }
+
+    @Override
+    public int compareStartToEnd(T start, T end) {
+        return comparator.compare(start, end);
+    }
+}
@@ -43,4 +43,21 @@ public interface Operations<T> {
      * it is done so here for testing purposes.
      */
     Interval<T> validate(T start, T end);
+
+    /**
+     * Compares two lower bounds, taking into account how null is interpreted at the lower bound. The comparison
+     * methods are exposed so that structures built on top of this interface can order intervals consistently with it.
+     */
+    int compareStart(T fst, T snd);
+
+    /**
+     * Compares two upper bounds, taking into account how null is interpreted at the upper bound.
+     */
+    int compareEnd(T fst, T snd);
+
+    /**
+     * Compares a lower bound to an upper bound. A negative result means that an interval with these bounds is not
+     * empty.
+     */
+    int compareStartToEnd(T start, T end);
 }
@@ -1,15 +1,16 @@
 package no.kreso.operations;
 
-import no.kreso.interval.Interval;
-import no.kreso.interval.IntervalDefault;
-
 import java.util.Comparator;
 
 /**
  * Default implementation of Operations. This implementation is null safe. However, to achieve null safety, the user
  * must specify if null should be interpreted as positive or negative infinity at both bounds of the interval.
+ * <p>
+ * The static factories return final implementations specialized for one interpretation of null, with the same
+ * semantics as this class. Their comparisons are straight-line code without checks of the interpretation, which lets
+ * the JIT inline them at call sites where several interpretations are in use.
  */
-public class OperationsDefault<T> implements Operations<T> {
+public class OperationsDefault<T> extends AbstractOperations<T> {
 
     private final Comparator<T> comparator;
     private final NullInterpretation lower;
@@ -37,11 +38,7 @@ public class OperationsDefault<T> implements Operations<T> {
      * as positive infinity for the upper bound. The default comparator for the type will be used.
      */
     public static <U extends Comparable<? super U>> Operations<U> unbound() {
-        return new OperationsDefault<>(
-                Comparator.<U>naturalOrder(),
-                NullInterpretation.NEGATIVE_INFINITY,
-                NullInterpretation.POSITIVE_INFINITY
-        );
+        return new UnboundOperations<>(Comparator.<U>naturalOrder());
     }
 
     /**
@@ -49,11 +46,7 @@ public class OperationsDefault<T> implements Operations<T> {
      * and upper bound. The default comparator for the type will be used.
      */
     public static <U extends Comparable<? super U>> Operations<U> leftBound() {
-        return new OperationsDefault<>(
-                Comparator.<U>naturalOrder(),
-                NullInterpretation.POSITIVE_INFINITY,
-                NullInterpretation.POSITIVE_INFINITY
-        );
+        return new LeftBoundOperations<>(Comparator.<U>naturalOrder());
     }
 
     /**
@@ -61,95 +54,30 @@ public class OperationsDefault<T> implements Operations<T> {
      * and upper bound. The default comparator for the type will be used.
      */
     public static <U extends Comparable<? super U>> Operations<U> rightBound() {
-        return new OperationsDefault<>(
-                Comparator.<U>naturalOrder(),
-                NullInterpretation.NEGATIVE_INFINITY,
-                NullInterpretation.NEGATIVE_INFINITY
-        );
-    }
-
-    @Override
-    public boolean subsetOf(Interval<T> left, Interval<T> right) {
-        if (isEmpty(left)) {
-            return true;
-        }
-        if (isEmpty(right)) {
-            return false;
-        }
-        return compareStart(left.start(), right.start()) >= 0 && compareEnd(left.end(), right.end()) <= 0;
-    }
-
-    @Override
-    public boolean isEmpty(Interval<T> interval) {
-        return compareStartToEnd(interval.start(), interval.end()) >= 0;
+        return new RightBoundOperations<>(Comparator.<U>naturalOrder());
     }
 
-    @Override
-    public Interval<T> intersection(Interval<T> left, Interval<T> right) {
-        if (isEmpty(left)) {
-            return left;
-        }
-        if (isEmpty(right)) {
-            return right;
-        }
-        return validate(
-                maxStart(left.start(), right.start()),
-                minEnd(left.end(), right.end())
-        );
-    }
-
-    @Override
-    public Interval<T> union(Interval<T> left, Interval<T> right) {
-        if (isEmpty(left)) {
-            return right;
-        }
-        if (isEmpty(right)) {
-            return left;
-        }
-        boolean rightStartsAfterLeftEnds = compareStartToEnd(right.start(), left.end()) > 0;
-        if (rightStartsAfterLeftEnds) {
-            return validate(left.end(), left.end());
-        }
-        boolean leftStartsAfterRightEnds = compareStartToEnd(left.start(), right.end()) > 0;
-        if (leftStartsAfterRightEnds) {
-            return validate(left.start(), left.start());
-        }
-        return validate(
-                minStart(left.start(), right.start()),
-                maxEnd(left.end(), right.end())
-        );
+    /**
+     * Create operations on intervals for callers that guarantee that no bound is ever null. The comparisons skip the
+     * null checks altogether, so passing null results in a NullPointerException. The default comparator for the type
+     * will be used.
+     */
+    public static <U extends Comparable<? super U>> Operations<U> nonNull() {
+        return new NonNullOperations<>(Comparator.<U>naturalOrder());
     }
 
     @Override
-    public Interval<T> validate(T start, T end) {
-        return IntervalDefault.of(start, compareStartToEnd(start, end) > 0 ? start : end);
-    }
-
-    private T minStart(T fst, T snd) {
-        return compareStart(fst, snd) < 0 ? fst : snd;
-    }
-
-    private T minEnd(T fst, T snd) {
-        return compareEnd(fst, snd) < 0 ? fst : snd;
-    }
-
-    private T maxStart(T fst, T snd) {
-        return compareStart(fst, snd) > 0 ? fst : snd;
-    }
-
-    private T maxEnd(T fst, T snd) {
-        return compareEnd(fst, snd) > 0 ? fst : snd;
-    }
-
-    private int compareStart(T fst, T snd) {
+    public int compareStart(T fst, T snd) {
         return compare(fst, snd, lower);
     }
 
-    private int compareEnd(T fst, T snd) {
+    @Override
+    public int compareEnd(T fst, T snd) {
         return compare(fst, snd, upper);
     }
 
-    private int compareStartToEnd(T start, T end) {
+    @Override
+    public int compareStartToEnd(T start, T end) {
         if (start == null && end == null && lower == upper) {
             return 0;
         }
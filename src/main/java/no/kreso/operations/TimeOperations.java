@@ -0,0 +1,45 @@
+package no.kreso.operations;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+
+
+/**
+ * Ready-made Operations for the common java.time types, where null is interpreted as by
+ * {@link OperationsDefault#unbound()}. Every value of these types can be compared, from the minimum to the maximum:
+ * <ul>
+ *     <li>{@link LocalDate} is compared as its epoch day, by a {@link KeyedOperations}.</li>
+ *     <li>{@link Instant} and {@link LocalDateTime} are compared by their natural order, and the Operations are those
+ *     of {@link OperationsDefault#unbound()}. They are here for completeness, not speed.</li>
+ *     <li>{@link OffsetDateTime} is compared by the epoch second and nanosecond of its instant, as by
+ *     {@link OffsetDateTime#timeLineOrder()}. Bounds at the same instant in different offsets are therefore equal,
+ *     unlike by {@link OffsetDateTime#compareTo}.</li>
+ * </ul>
+ * Only {@link #localDate()} is accelerated. A nanosecond count since the epoch would only fit in a long for about 292
+ * years on either side of 1970, which rules out sentinels such as 9999-12-31, so the other types are not mapped to a
+ * single long. Intervals that extract the epoch second and nanosecond of their bounds once, when they are created, are
+ * available as the composites in {@code no.kreso.composites}, such as {@code InstantInterval}.
+ */
+public final class TimeOperations {
+
+    private TimeOperations() {
+    }
+
+    public static Operations<LocalDate> localDate() {
+        return KeyedOperations.unbound(LocalDate::toEpochDay);
+    }
+
+    public static Operations<Instant> instant() {
+        return OperationsDefault.unbound();
+    }
+
+    public static Operations<LocalDateTime> localDateTime() {
+        return OperationsDefault.unbound();
+    }
+
+    public static Operations<OffsetDateTime> offsetDateTime() {
+        return new UnboundOperations<>(OffsetDateTime.timeLineOrder());
+    }
+}
@@ -0,0 +1,47 @@
+package no.kreso.operations;
+
+import java.util.Comparator;
+
+
+/**
+ * Operations treating null as negative infinity at the lower bound and as positive infinity at the upper bound.
+ * Equivalent to OperationsDefault with NEGATIVE_INFINITY and POSITIVE_INFINITY.
+ */
+final class UnboundOperations<T> extends AbstractOperations<T> {
+
+    private final Comparator<T> comparator;
+
+    UnboundOperations(Comparator<T> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public int compareStart(T fst, T snd) {
+        if (fst == null) {
+            return snd == null ? 0 : -1;
+        }
+        if (snd == null) {
+            return 1;
+        }
+        return comparator.compare(fst, snd);
+    }
+
+    @Override
+    public int compareEnd(T fst, T snd) {
+        if (fst == null) {
+            return snd == null ? 0 : 1;
+        }
+        if (snd == null) {
+            return -1;
+        }
+        return comparator.compare(fst, snd);
+    }
+
+    @Override
+    public int compareStartToEnd(T start, T end) {
+        if (start == null || end == null) {
+            return -1;
+        }
+        return comparator.compare(start, end);
+    }
+}
@@ -0,0 +1,127 @@
+package no.kreso.sets;
+
+import java.util.Arrays;
+
+
+/**
+ * Container holding its values as a bitmap of 1024 words, used when the values are too fragmented for runs.
+ */
+final class BitmapContainer extends Container {
+
+    private final long[] words;
+    private final int cardinality;
+
+    /**
+     * The array is not copied.
+     */
+    BitmapContainer(long[] words) {
+        this.words = words;
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(int low) {
+        return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    int rank(int low) {
+        int word = low >>> 6;
+        int rank = 0;
+        for (int i = 0; i < word; i++) {
+            rank += Long.bitCount(words[i]);
+        }
+        return rank + Long.bitCount(words[word] & (-1L >>> (63 - (low & 63))));
+    }
+
+    @Override
+    void forEachRun(RunConsumer consumer) {
+        int start = nextSetBit(0);
+        while (start < CHUNK_SIZE) {
+            int end = nextClearBit(start);
+            consumer.accept(start, end);
+            start = nextSetBit(end);
+        }
+    }
+
+    @Override
+    long[] toWords() {
+        return words.clone();
+    }
+
+    @Override
+    void orInto(long[] words) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= this.words[i];
+        }
+    }
+
+    @Override
+    void andInto(long[] words) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= this.words[i];
+        }
+    }
+
+    @Override
+    void andNotInto(long[] words) {
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= ~this.words[i];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BitmapContainer other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    /**
+     * Will return the first set bit at or after the given index, or CHUNK_SIZE if there is none.
+     */
+    private int nextSetBit(int from) {
+        int index = from >>> 6;
+        if (index >= WORDS) {
+            return CHUNK_SIZE;
+        }
+        long word = words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index == WORDS) {
+                return CHUNK_SIZE;
+            }
+            word = words[index];
+        }
+        return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Will return the first clear bit at or after the given index, or CHUNK_SIZE if there is none.
+     */
+    private int nextClearBit(int from) {
+        int index = from >>> 6;
+        if (index >= WORDS) {
+            return CHUNK_SIZE;
+        }
+        long word = ~words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index == WORDS) {
+                return CHUNK_SIZE;
+            }
+            word = ~words[index];
+        }
+        return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,356 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Immutable set of integers, compressed in the manner of Roaring bitmaps. The values are split into chunks of 2^16 by
+ * their high bits, and every non-empty chunk is held by a container: a list of runs when the values are mostly
+ * consecutive, as is typical for sets built from intervals, and a bitmap otherwise. Union, intersection and difference
+ * of bitmaps are word-wide bitwise operations, and of runs a single sweep.
+ * <p>
+ * Conversion to and from intervals follows the Operations the set is created with, restricted to the domain of int.
+ * Empty intervals are ignored, and a null bound that the Operations interpret as infinity extends the interval to
+ * {@link Integer#MIN_VALUE} or {@link Integer#MAX_VALUE}. Conversely, intervals that start at the minimum or contain
+ * the maximum are returned with a null bound where the Operations interpret null as that infinity. The Operations must
+ * order the integers naturally, and sets can only be combined with sets of the same interpretation of null.
+ */
+public final class BitmapIntervalSet {
+
+    private static final long DOMAIN_SIZE = 1L << Integer.SIZE;
+
+    private final NullBounds nullBounds;
+
+    /**
+     * The high bits of the values in each container, with the sign bit flipped, so that they sort as unsigned.
+     */
+    private final char[] keys;
+    private final Container[] containers;
+    /**
+     * Number of values in the containers before each index, and the cardinality of the set at the last index.
+     */
+    private final long[] ranks;
+
+    private BitmapIntervalSet(NullBounds nullBounds, char[] keys, Container[] containers, int size) {
+        this.nullBounds = nullBounds;
+        this.keys = size == keys.length ? keys : Arrays.copyOf(keys, size);
+        this.containers = size == containers.length ? containers : Arrays.copyOf(containers, size);
+        this.ranks = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            ranks[i + 1] = ranks[i] + containers[i].cardinality();
+        }
+    }
+
+    /**
+     * Will return the set of values contained in the interval.
+     *
+     * @throws IllegalArgumentException if the Operations do not order the integers naturally.
+     */
+    public static BitmapIntervalSet of(Operations<Integer> operations, Interval<Integer> interval) {
+        return of(operations, List.of(interval));
+    }
+
+    /**
+     * Will return the set of values contained in any of the intervals, in any order.
+     *
+     * @throws IllegalArgumentException if the Operations do not order the integers naturally.
+     */
+    public static BitmapIntervalSet of(
+            Operations<Integer> operations,
+            Collection<? extends Interval<Integer>> intervals
+    ) {
+        if (operations.compareStart(Integer.MIN_VALUE, Integer.MAX_VALUE) >= 0) {
+            throw new IllegalArgumentException("Operations do not order the integers naturally");
+        }
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        int count = 0;
+        for (Interval<Integer> interval : intervals) {
+            // A null bound of a non-empty interval can only be the infinity on its own side
+            if (!operations.isEmpty(interval)) {
+                long start = interval.start() == null ? 0 : unsigned(interval.start());
+                long end = interval.end() == null ? DOMAIN_SIZE : unsigned(interval.end());
+                starts[count] = start;
+                ends[count] = end;
+                count++;
+            }
+        }
+        Arrays.sort(starts, 0, count);
+        Arrays.sort(ends, 0, count);
+        // Starts sort independently of ends, since only the number of intervals covering a value matters
+        Appender appender = new Appender();
+        int i = 0;
+        int j = 0;
+        int depth = 0;
+        long runStart = 0;
+        while (j < count) {
+            if (i < count && starts[i] <= ends[j]) {
+                if (depth++ == 0) {
+                    runStart = starts[i];
+                }
+                i++;
+            } else {
+                if (--depth == 0) {
+                    appender.add(runStart, ends[j]);
+                }
+                j++;
+            }
+        }
+        return appender.build(NullBounds.of(operations));
+    }
+
+    /**
+     * Will return the number of values in the set.
+     */
+    public long cardinality() {
+        return ranks[containers.length];
+    }
+
+    public boolean isEmpty() {
+        return containers.length == 0;
+    }
+
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, high(value));
+        return index >= 0 && containers[index].contains(low(value));
+    }
+
+    /**
+     * Will return the number of values in the set less than or equal to the given value.
+     */
+    public long rank(int value) {
+        int index = Arrays.binarySearch(keys, high(value));
+        if (index < 0) {
+            return ranks[-index - 1];
+        }
+        return ranks[index] + containers[index].rank(low(value));
+    }
+
+    public BitmapIntervalSet union(BitmapIntervalSet other) {
+        requireSameNullBounds(other);
+        int size = containers.length + other.containers.length;
+        char[] keys = new char[size];
+        Container[] containers = new Container[size];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length || j < other.keys.length) {
+            int order = i == this.keys.length ? 1 : j == other.keys.length ? -1 : this.keys[i] - other.keys[j];
+            if (order < 0) {
+                keys[length] = this.keys[i];
+                containers[length++] = this.containers[i++];
+            } else if (order > 0) {
+                keys[length] = other.keys[j];
+                containers[length++] = other.containers[j++];
+            } else {
+                keys[length] = this.keys[i];
+                containers[length++] = Container.or(this.containers[i++], other.containers[j++]);
+            }
+        }
+        return new BitmapIntervalSet(nullBounds, keys, containers, length);
+    }
+
+    public BitmapIntervalSet intersection(BitmapIntervalSet other) {
+        requireSameNullBounds(other);
+        int size = Math.min(containers.length, other.containers.length);
+        char[] keys = new char[size];
+        Container[] containers = new Container[size];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length && j < other.keys.length) {
+            int order = this.keys[i] - other.keys[j];
+            if (order < 0) {
+                i++;
+            } else if (order > 0) {
+                j++;
+            } else {
+                Container container = Container.and(this.containers[i], other.containers[j]);
+                if (container != null) {
+                    keys[length] = this.keys[i];
+                    containers[length++] = container;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new BitmapIntervalSet(nullBounds, keys, containers, length);
+    }
+
+    public BitmapIntervalSet difference(BitmapIntervalSet other) {
+        requireSameNullBounds(other);
+        char[] keys = new char[containers.length];
+        Container[] containers = new Container[this.containers.length];
+        int length = 0;
+        int j = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < this.keys[i]) {
+                j++;
+            }
+            Container container = j < other.keys.length && other.keys[j] == this.keys[i]
+                    ? Container.andNot(this.containers[i], other.containers[j])
+                    : this.containers[i];
+            if (container != null) {
+                keys[length] = this.keys[i];
+                containers[length++] = container;
+            }
+        }
+        return new BitmapIntervalSet(nullBounds, keys, containers, length);
+    }
+
+    /**
+     * Will return the set as disjoint, non-adjacent intervals in ascending order.
+     */
+    public List<Interval<Integer>> intervals() {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        long[] run = {-1, -1};
+        for (int i = 0; i < containers.length; i++) {
+            long offset = (long) keys[i] << 16;
+            containers[i].forEachRun((start, end) -> {
+                if (run[1] == offset + start) {
+                    run[1] = offset + end;
+                    return;
+                }
+                if (run[0] >= 0) {
+                    intervals.add(toInterval(run[0], run[1]));
+                }
+                run[0] = offset + start;
+                run[1] = offset + end;
+            });
+        }
+        if (run[0] >= 0) {
+            intervals.add(toInterval(run[0], run[1]));
+        }
+        return Collections.unmodifiableList(intervals);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BitmapIntervalSet other)) {
+            return false;
+        }
+        return nullBounds.equals(other.nullBounds)
+                && Arrays.equals(keys, other.keys)
+                && Arrays.equals(containers, other.containers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * nullBounds.hashCode() + Arrays.hashCode(keys)) + Arrays.hashCode(containers);
+    }
+
+    @Override
+    public String toString() {
+        return intervals().toString();
+    }
+
+    private void requireSameNullBounds(BitmapIntervalSet other) {
+        if (!nullBounds.equals(other.nullBounds)) {
+            throw new IllegalArgumentException(
+                    "Sets of different interpretations of null: " + nullBounds + " and " + other.nullBounds);
+        }
+    }
+
+    /**
+     * Maps the value to [0, 2^32), preserving order.
+     */
+    private static long unsigned(int value) {
+        return (long) value - Integer.MIN_VALUE;
+    }
+
+    private static char high(int value) {
+        return (char) ((value ^ Integer.MIN_VALUE) >>> 16);
+    }
+
+    private static int low(int value) {
+        return value & 0xFFFF;
+    }
+
+    private Interval<Integer> toInterval(long start, long end) {
+        if (end == DOMAIN_SIZE && !nullBounds.end()) {
+            // Only a null upper bound read as positive infinity contains the maximum
+            throw new IllegalStateException("The maximum cannot be excluded by an Integer upper bound");
+        }
+        return IntervalDefault.of(
+                start == 0 && nullBounds.start() ? null : (int) (start + Integer.MIN_VALUE),
+                end == DOMAIN_SIZE ? null : (int) (end + Integer.MIN_VALUE));
+    }
+
+    /**
+     * Whether the Operations of a set interpret a null lower bound as negative infinity, and a null upper bound as
+     * positive infinity.
+     */
+    private record NullBounds(boolean start, boolean end) {
+
+        static NullBounds of(Operations<Integer> operations) {
+            try {
+                return new NullBounds(
+                        operations.compareStart(null, Integer.MIN_VALUE) < 0,
+                        operations.compareEnd(null, Integer.MAX_VALUE) > 0);
+            } catch (NullPointerException e) {
+                // Operations that never see a null bound, so none is returned either
+                return new NullBounds(false, false);
+            }
+        }
+    }
+
+    /**
+     * Builds a set from sorted, disjoint and non-adjacent ranges of unsigned values.
+     */
+    private static final class Appender {
+
+        private char[] keys = new char[4];
+        private Container[] containers = new Container[4];
+        private int size;
+        private int key = -1;
+        private int[] runs = new int[16];
+        private int length;
+
+        void add(long start, long end) {
+            while (start < end) {
+                int key = (int) (start >>> 16);
+                long chunkStart = (long) key << 16;
+                long chunkEnd = Math.min(end, chunkStart + Container.CHUNK_SIZE);
+                if (key != this.key) {
+                    flush();
+                    this.key = key;
+                }
+                if (length == runs.length) {
+                    runs = Arrays.copyOf(runs, 2 * length);
+                }
+                runs[length++] = (int) (start - chunkStart);
+                runs[length++] = (int) (chunkEnd - chunkStart);
+                start = chunkEnd;
+            }
+        }
+
+        BitmapIntervalSet build(NullBounds nullBounds) {
+            flush();
+            return new BitmapIntervalSet(nullBounds, keys, containers, size);
+        }
+
+        private void flush() {
+            if (length == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                containers = Arrays.copyOf(containers, 2 * size);
+            }
+            keys[size] = (char) key;
+            containers[size++] = Container.fromRuns(runs, length);
+            length = 0;
+        }
+    }
+}
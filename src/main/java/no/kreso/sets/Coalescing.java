@@ -0,0 +1,88 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * Coalescing of very large collections of intervals in parallel. The intervals are sorted with a parallel sort, after
+ * which the sorted array is split in slices that are coalesced independently with fork/join. Since the slices are
+ * consecutive, the partial results are joined by coalescing the boundary between them, see
+ * {@link IntervalSet#concatenate}.
+ */
+public final class Coalescing {
+
+    /**
+     * Slices smaller than this are coalesced sequentially.
+     */
+    private static final int THRESHOLD = 1 << 13;
+
+    private Coalescing() {
+    }
+
+    /**
+     * Will return the union of the intervals, using the common fork/join pool.
+     */
+    public static <T> IntervalSet<T> coalesce(Collection<? extends Interval<T>> intervals, Operations<T> operations) {
+        return coalesce(intervals, operations, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Will return the union of the intervals, using the given pool for coalescing. Note that the sorting step always
+     * uses the common pool, see {@link Arrays#parallelSort(Object[], Comparator)}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalSet<T> coalesce(
+            Collection<? extends Interval<T>> intervals,
+            Operations<T> operations,
+            ForkJoinPool pool
+    ) {
+        Interval<T>[] sorted = intervals.parallelStream()
+                .filter(interval -> !operations.isEmpty(interval))
+                .toArray(Interval[]::new);
+        Arrays.parallelSort(sorted, (fst, snd) -> operations.compareStart(fst.start(), snd.start()));
+        return pool.invoke(new Task<>(operations, sorted, 0, sorted.length));
+    }
+
+    private static final class Task<T> extends RecursiveTask<IntervalSet<T>> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Operations<T> operations;
+        private final Interval<T>[] sorted;
+        private final int from;
+        private final int to;
+
+        private Task(Operations<T> operations, Interval<T>[] sorted, int from, int to) {
+            this.operations = operations;
+            this.sorted = sorted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntervalSet<T> compute() {
+            if (to - from <= THRESHOLD) {
+                IntervalSet.Builder<T> builder = new IntervalSet.Builder<>(operations, to - from);
+                for (int i = from; i < to; i++) {
+                    builder.add(sorted[i].start(), sorted[i].end());
+                }
+                return builder.build();
+            }
+            int middle = (from + to) >>> 1;
+            Task<T> left = new Task<>(operations, sorted, from, middle);
+            Task<T> right = new Task<>(operations, sorted, middle, to);
+            left.fork();
+            IntervalSet<T> rightResult = right.compute();
+            return IntervalSet.concatenate(left.join(), rightResult);
+        }
+    }
+}
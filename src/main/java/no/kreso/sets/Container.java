@@ -0,0 +1,210 @@
+package no.kreso.sets;
+
+
+/**
+ * Set of 16 bit values, holding the low bits of the values in one chunk of a {@link BitmapIntervalSet}. Containers are
+ * immutable, and always in their canonical representation: a run container if it has fewer than
+ * {@link RunContainer#MAX_RUNS} runs, a bitmap container otherwise. Empty containers are represented by null.
+ */
+abstract class Container {
+
+    static final int CHUNK_SIZE = 1 << 16;
+    static final int WORDS = CHUNK_SIZE / Long.SIZE;
+
+    private static final int AND = 0;
+    private static final int OR = 1;
+    private static final int AND_NOT = 2;
+
+    abstract int cardinality();
+
+    abstract boolean contains(int low);
+
+    /**
+     * Will return the number of values in the container less than or equal to the given value.
+     */
+    abstract int rank(int low);
+
+    /**
+     * Passes the maximal runs of consecutive values to the consumer, in ascending order, as half-open ranges.
+     */
+    abstract void forEachRun(RunConsumer consumer);
+
+    /**
+     * Will return the values as a new bitmap.
+     */
+    abstract long[] toWords();
+
+    abstract void orInto(long[] words);
+
+    abstract void andInto(long[] words);
+
+    abstract void andNotInto(long[] words);
+
+    interface RunConsumer {
+        void accept(int start, int end);
+    }
+
+    static Container or(Container left, Container right) {
+        if (left instanceof RunContainer runs && right instanceof RunContainer other) {
+            return combine(runs, other, OR);
+        }
+        long[] words;
+        if (left instanceof BitmapContainer) {
+            words = left.toWords();
+            right.orInto(words);
+        } else {
+            words = right.toWords();
+            left.orInto(words);
+        }
+        return fromWords(words);
+    }
+
+    static Container and(Container left, Container right) {
+        if (left instanceof RunContainer runs && right instanceof RunContainer other) {
+            return combine(runs, other, AND);
+        }
+        long[] words;
+        if (left instanceof BitmapContainer) {
+            words = left.toWords();
+            right.andInto(words);
+        } else {
+            words = right.toWords();
+            left.andInto(words);
+        }
+        return fromWords(words);
+    }
+
+    static Container andNot(Container left, Container right) {
+        if (left instanceof RunContainer runs && right instanceof RunContainer other) {
+            return combine(runs, other, AND_NOT);
+        }
+        long[] words = left.toWords();
+        right.andNotInto(words);
+        return fromWords(words);
+    }
+
+    /**
+     * Will return the container holding the given runs, or null if there are none.
+     *
+     * @param runs Sorted, disjoint and non-adjacent half-open ranges, as (start, end) pairs.
+     * @param length Number of elements of the array in use.
+     */
+    static Container fromRuns(int[] runs, int length) {
+        if (length == 0) {
+            return null;
+        }
+        if (length / 2 < RunContainer.MAX_RUNS) {
+            return new RunContainer(runs, length);
+        }
+        long[] words = new long[WORDS];
+        for (int i = 0; i < length; i += 2) {
+            fill(words, runs[i], runs[i + 1]);
+        }
+        return new BitmapContainer(words);
+    }
+
+    /**
+     * Will return the container holding the values of the bitmap, or null if there are none. The array is not copied.
+     */
+    static Container fromWords(long[] words) {
+        int runCount = 0;
+        long previous = 0;
+        for (long word : words) {
+            runCount += Long.bitCount(word & ~((word << 1) | (previous >>> 63)));
+            previous = word;
+        }
+        if (runCount == 0) {
+            return null;
+        }
+        if (runCount >= RunContainer.MAX_RUNS) {
+            return new BitmapContainer(words);
+        }
+        int[] runs = new int[2 * runCount];
+        int[] length = new int[1];
+        new BitmapContainer(words).forEachRun((start, end) -> {
+            runs[length[0]++] = start;
+            runs[length[0]++] = end;
+        });
+        return new RunContainer(runs, runs.length);
+    }
+
+    /**
+     * Sets the bits in the half-open range, a word at a time.
+     */
+    static void fill(long[] words, int start, int end) {
+        if (start >= end) {
+            return;
+        }
+        int first = start >>> 6;
+        int last = (end - 1) >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> -end;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /**
+     * Clears the bits in the half-open range, a word at a time.
+     */
+    static void clear(long[] words, int start, int end) {
+        if (start >= end) {
+            return;
+        }
+        int first = start >>> 6;
+        int last = (end - 1) >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> -end;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    /**
+     * Combines two run containers in a single sweep over the boundaries of their runs.
+     */
+    private static Container combine(RunContainer left, RunContainer right, int operation) {
+        int leftBoundaries = 2 * left.runCount();
+        int rightBoundaries = 2 * right.runCount();
+        int[] runs = new int[leftBoundaries + rightBoundaries];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        boolean inside = false;
+        while (i < leftBoundaries || j < rightBoundaries) {
+            int leftNext = i < leftBoundaries ? left.boundary(i) : Integer.MAX_VALUE;
+            int rightNext = j < rightBoundaries ? right.boundary(j) : Integer.MAX_VALUE;
+            int at = Math.min(leftNext, rightNext);
+            if (leftNext == at) {
+                i++;
+            }
+            if (rightNext == at) {
+                j++;
+            }
+            boolean inLeft = (i & 1) == 1;
+            boolean inRight = (j & 1) == 1;
+            boolean now = switch (operation) {
+                case AND -> inLeft && inRight;
+                case OR -> inLeft || inRight;
+                default -> inLeft && !inRight;
+            };
+            if (now != inside) {
+                runs[length++] = at;
+                inside = now;
+            }
+        }
+        return fromRuns(runs, length);
+    }
+}
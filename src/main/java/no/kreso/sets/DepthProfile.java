@@ -0,0 +1,171 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongBiFunction;
+
+
+/**
+ * Step function of the number of intervals containing each point, from the lowest lower bound to the greatest upper
+ * bound of the intervals. Computed with a single sweep over the lower and the upper bounds, each sorted on their own,
+ * since only the number of intervals started and ended before a point matters, and not which intervals they are.
+ * <p>
+ * Empty intervals are ignored. Where one interval ends and another starts, they are not both counted, since the
+ * intervals are half-open. Consecutive steps always differ in depth. See {@link LongDepthProfile} for primitive bounds.
+ *
+ * @param <T> The type of the interval
+ */
+public final class DepthProfile<T> {
+
+    /**
+     * Lower bounds of the steps, followed by the upper bound of the last step.
+     */
+    private final Object[] boundaries;
+    private final int[] depths;
+    private final int maxDepth;
+
+    private DepthProfile(Object[] boundaries, int[] depths, int maxDepth) {
+        this.boundaries = boundaries;
+        this.depths = depths;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @param range The points of the step.
+     * @param depth Number of intervals containing the points of the step.
+     */
+    public record Step<T>(Interval<T> range, int depth) { }
+
+    @SuppressWarnings("unchecked")
+    public static <T> DepthProfile<T> of(Collection<? extends Interval<T>> intervals, Operations<T> operations) {
+        Object[] starts = new Object[intervals.size()];
+        Object[] ends = new Object[intervals.size()];
+        int count = 0;
+        for (Interval<T> interval : intervals) {
+            if (!operations.isEmpty(interval)) {
+                starts[count] = interval.start();
+                ends[count] = interval.end();
+                count++;
+            }
+        }
+        Arrays.sort(starts, 0, count, (fst, snd) -> operations.compareStart((T) fst, (T) snd));
+        Arrays.sort(ends, 0, count, (fst, snd) -> operations.compareEnd((T) fst, (T) snd));
+
+        Object[] boundaries = new Object[2 * count];
+        int[] depths = new int[2 * count];
+        int steps = 0;
+        int depth = 0;
+        int maxDepth = 0;
+        int i = 0;
+        int j = 0;
+        while (j < count) {
+            // Upper bounds go first, so that adjacent intervals are not counted together
+            boolean start = i < count && operations.compareStartToEnd((T) starts[i], (T) ends[j]) < 0;
+            T at = (T) (start ? starts[i] : ends[j]);
+            depth += start ? 1 : -1;
+            if (start) {
+                i++;
+            } else {
+                j++;
+            }
+            if (j < count) {
+                boolean nextStart = i < count && operations.compareStartToEnd((T) starts[i], (T) ends[j]) < 0;
+                T next = (T) (nextStart ? starts[i] : ends[j]);
+                if (samePoint(at, start, next, nextStart, operations)) {
+                    continue;
+                }
+            }
+            if (steps > 0 && depths[steps - 1] == depth) {
+                continue;
+            }
+            boundaries[steps] = at;
+            depths[steps] = depth;
+            maxDepth = Math.max(maxDepth, depth);
+            steps++;
+        }
+        return new DepthProfile<>(Arrays.copyOf(boundaries, steps), Arrays.copyOf(depths, steps), maxDepth);
+    }
+
+    /**
+     * Will return the steps in ascending order. Steps of depth 0 are included between the intervals, but not before or
+     * after them.
+     */
+    public List<Step<T>> steps() {
+        return new AbstractList<>() {
+            @Override
+            public Step<T> get(int index) {
+                return new Step<>(range(index), depths[index]);
+            }
+
+            @Override
+            public int size() {
+                return Math.max(boundaries.length - 1, 0);
+            }
+        };
+    }
+
+    /**
+     * Will return the greatest number of intervals containing the same point, or 0 if there are no intervals.
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Will return the ranges where the depth is at its maximum, in ascending order.
+     */
+    public List<Interval<T>> maxDepthRanges() {
+        List<Interval<T>> ranges = new ArrayList<>();
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            if (depths[i] == maxDepth) {
+                ranges.add(range(i));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Will return the total length of the steps at every depth, indexed by depth. Steps with a null bound are infinitely
+     * long, which is reported as {@link Long#MAX_VALUE}, as are totals that overflow.
+     *
+     * @param length Computes the length of a step from its (non-null) bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public long[] durations(ToLongBiFunction<T, T> length) {
+        long[] durations = new long[maxDepth + 1];
+        for (int i = 0; i < boundaries.length - 1; i++) {
+            T start = (T) boundaries[i];
+            T end = (T) boundaries[i + 1];
+            long duration = start == null || end == null ? Long.MAX_VALUE : length.applyAsLong(start, end);
+            durations[depths[i]] = saturatedAdd(durations[depths[i]], duration);
+        }
+        return durations;
+    }
+
+    /**
+     * Will return true if the bounds are at the same point, for bounds that are lower or upper bounds as given.
+     */
+    private static <T> boolean samePoint(T fst, boolean fstStart, T snd, boolean sndStart, Operations<T> operations) {
+        if (fstStart) {
+            return (sndStart ? operations.compareStart(fst, snd) : operations.compareStartToEnd(fst, snd)) == 0;
+        }
+        return (sndStart ? operations.compareStartToEnd(snd, fst) : operations.compareEnd(fst, snd)) == 0;
+    }
+
+    static long saturatedAdd(long fst, long snd) {
+        long sum = fst + snd;
+        return ((fst ^ sum) & (snd ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Interval<T> range(int index) {
+        return IntervalDefault.of((T) boundaries[index], (T) boundaries[index + 1]);
+    }
+}
@@ -0,0 +1,110 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+
+/**
+ * Search for the gaps between intervals within a bounding interval, in a single pass over intervals sorted by their
+ * lower bound. The intervals may overlap, and empty intervals are ignored.
+ */
+public final class Gaps {
+
+    private Gaps() {
+    }
+
+    /**
+     * Will return the values of the bounding interval not contained in any of the intervals.
+     *
+     * @throws IllegalArgumentException if the intervals are not sorted by their lower bound.
+     */
+    public static <T> IntervalSet<T> complement(
+            List<? extends Interval<T>> sorted,
+            Interval<T> bounds,
+            Operations<T> operations
+    ) {
+        IntervalSet.Builder<T> builder = new IntervalSet.Builder<>(operations, sorted.size() + 1);
+        forEachGap(sorted, bounds, operations, (start, end) -> {
+            builder.add(start, end);
+            return true;
+        });
+        return builder.build();
+    }
+
+    /**
+     * Will return the first gap within the bounding interval whose length is at least the given minimum. Gaps without
+     * an upper or lower bound are infinitely long. The whole gap is returned, not just a slot of the minimum length.
+     *
+     * @param distance Computes the length of a gap from its (non-null) bounds.
+     * @param comparator Compares lengths.
+     * @throws IllegalArgumentException if the intervals are not sorted by their lower bound.
+     */
+    public static <T, D> Optional<Interval<T>> firstGap(
+            List<? extends Interval<T>> sorted,
+            Interval<T> bounds,
+            D minimumLength,
+            BiFunction<T, T, D> distance,
+            Comparator<D> comparator,
+            Operations<T> operations
+    ) {
+        List<Interval<T>> found = new ArrayList<>(1);
+        forEachGap(sorted, bounds, operations, (start, end) -> {
+            boolean infinite = start == null || end == null;
+            if (infinite || comparator.compare(distance.apply(start, end), minimumLength) >= 0) {
+                found.add(IntervalDefault.of(start, end));
+                return false;
+            }
+            return true;
+        });
+        return found.stream().findFirst();
+    }
+
+    /**
+     * Passes every non-empty gap to the visitor, in ascending order, until the visitor returns false.
+     */
+    private static <T> void forEachGap(
+            List<? extends Interval<T>> sorted,
+            Interval<T> bounds,
+            Operations<T> operations,
+            BiPredicate<T, T> visitor
+    ) {
+        if (operations.isEmpty(bounds)) {
+            return;
+        }
+        T cursor = bounds.start();
+        Interval<T> previous = null;
+        for (Interval<T> interval : sorted) {
+            if (operations.isEmpty(interval)) {
+                continue;
+            }
+            if (previous != null && operations.compareStart(interval.start(), previous.start()) < 0) {
+                throw new IllegalArgumentException("Intervals are not sorted by start: " + interval + " after " + previous);
+            }
+            previous = interval;
+            if (operations.compareStartToEnd(interval.start(), bounds.end()) >= 0) {
+                break;
+            }
+            if (operations.compareStartToEnd(cursor, interval.end()) >= 0) {
+                continue;
+            }
+            if (operations.compareStart(interval.start(), cursor) > 0 && !visitor.test(cursor, interval.start())) {
+                return;
+            }
+            if (operations.compareEnd(interval.end(), bounds.end()) >= 0) {
+                return;
+            }
+            cursor = interval.end();
+        }
+        if (operations.compareStartToEnd(cursor, bounds.end()) < 0) {
+            visitor.test(cursor, bounds.end());
+        }
+    }
+}
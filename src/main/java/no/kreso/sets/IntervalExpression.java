@@ -0,0 +1,498 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Lazy set algebra over interval sets. Union, intersection and difference build a tree of expressions, which is only
+ * evaluated when its result is iterated, streamed or collected. Nested unions and intersections are flattened, so that
+ * the evaluation can plan them as a whole:
+ * <ul>
+ *     <li>An intersection with an operand known to be empty is empty, without reading the other operands.</li>
+ *     <li>The operands of an intersection are read in ascending order of their estimated size.</li>
+ *     <li>The result of an intersection lies within the bounding interval of each operand, and the result of a
+ *     difference within that of its left operand. The window of the evaluation is narrowed to these bounds and pushed
+ *     down to the sets at the leaves, which only read the intervals within the window.</li>
+ * </ul>
+ * Every operator merges the sorted streams of its operands, so no intermediate set is materialized, and the result is
+ * produced in ascending order, as disjoint and non-adjacent intervals.
+ *
+ * @param <T> The type of the interval
+ */
+public abstract class IntervalExpression<T> {
+
+    final Operations<T> operations;
+
+    private IntervalExpression(Operations<T> operations) {
+        this.operations = operations;
+    }
+
+    public static <T> IntervalExpression<T> of(IntervalSet<T> set) {
+        return new Leaf<>(set);
+    }
+
+    public static <T> IntervalExpression<T> of(Operations<T> operations, Interval<T> interval) {
+        return of(IntervalSet.of(operations, interval));
+    }
+
+    public static <T> IntervalExpression<T> of(Operations<T> operations, Collection<? extends Interval<T>> intervals) {
+        return of(IntervalSet.of(operations, intervals));
+    }
+
+    public IntervalExpression<T> union(IntervalExpression<T> other) {
+        List<IntervalExpression<T>> operands = new ArrayList<>();
+        for (IntervalExpression<T> operand : List.of(this, other)) {
+            if (operand instanceof Union<T> union) {
+                operands.addAll(union.operands);
+            } else {
+                operands.add(operand);
+            }
+        }
+        return new Union<>(operations, operands);
+    }
+
+    public IntervalExpression<T> intersection(IntervalExpression<T> other) {
+        List<IntervalExpression<T>> operands = new ArrayList<>();
+        for (IntervalExpression<T> operand : List.of(this, other)) {
+            if (operand instanceof Intersection<T> intersection) {
+                operands.addAll(intersection.operands);
+            } else {
+                operands.add(operand);
+            }
+        }
+        return new Intersection<>(operations, operands);
+    }
+
+    public IntervalExpression<T> difference(IntervalExpression<T> other) {
+        return new Difference<>(operations, this, other);
+    }
+
+    /**
+     * Will lazily evaluate the expression.
+     */
+    public Iterator<Interval<T>> iterator() {
+        return open(null);
+    }
+
+    /**
+     * Will lazily evaluate the part of the expression within the window.
+     */
+    public Iterator<Interval<T>> iterator(Interval<T> window) {
+        return operations.isEmpty(window) ? new Empty<>() : open(window);
+    }
+
+    public Stream<Interval<T>> stream() {
+        return stream(iterator());
+    }
+
+    public Stream<Interval<T>> stream(Interval<T> window) {
+        return stream(iterator(window));
+    }
+
+    /**
+     * Will evaluate the expression into a set.
+     */
+    public IntervalSet<T> evaluate() {
+        return collect(iterator());
+    }
+
+    /**
+     * Will evaluate the part of the expression within the window into a set.
+     */
+    public IntervalSet<T> evaluate(Interval<T> window) {
+        return collect(iterator(window));
+    }
+
+    /**
+     * Will return true if the result is empty, as known without evaluating the expression. An expression may still
+     * evaluate to an empty set when this returns false.
+     */
+    abstract boolean knownEmpty();
+
+    /**
+     * Will return an estimate of the number of intervals in the result, used to order the operands of intersections.
+     */
+    abstract long estimate();
+
+    /**
+     * Will return an interval containing the result, possibly empty. Only called when the result is not known to be
+     * empty.
+     */
+    abstract Interval<T> hull();
+
+    /**
+     * Will return the result within the window, or the whole result if the window is null.
+     */
+    abstract Iterator<Interval<T>> open(Interval<T> window);
+
+    /**
+     * Will return the window narrowed to the interval.
+     */
+    Interval<T> narrow(Interval<T> window, Interval<T> interval) {
+        return window == null ? interval : operations.intersection(window, interval);
+    }
+
+    private IntervalSet<T> collect(Iterator<Interval<T>> iterator) {
+        IntervalSet.Builder<T> builder = new IntervalSet.Builder<>(operations, (int) Math.min(estimate(), 1 << 10));
+        iterator.forEachRemaining(interval -> builder.add(interval.start(), interval.end()));
+        return builder.build();
+    }
+
+    private static <T> Stream<Interval<T>> stream(Iterator<Interval<T>> iterator) {
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+    }
+
+    private static final class Leaf<T> extends IntervalExpression<T> {
+
+        private final IntervalSet<T> set;
+
+        private Leaf(IntervalSet<T> set) {
+            super(set.operations());
+            this.set = set;
+        }
+
+        @Override
+        boolean knownEmpty() {
+            return set.isEmpty();
+        }
+
+        @Override
+        long estimate() {
+            return set.size();
+        }
+
+        @Override
+        Interval<T> hull() {
+            return IntervalDefault.of(set.get(0).start(), set.get(set.size() - 1).end());
+        }
+
+        @Override
+        Iterator<Interval<T>> open(Interval<T> window) {
+            if (window == null) {
+                return set.iterator();
+            }
+            return new Cursor<>() {
+                private int index = set.firstEndingAfter(window.start());
+
+                @Override
+                Interval<T> advance() {
+                    if (index == set.size()) {
+                        return null;
+                    }
+                    Interval<T> interval = set.get(index++);
+                    if (operations.compareStartToEnd(interval.start(), window.end()) >= 0) {
+                        index = set.size();
+                        return null;
+                    }
+                    return operations.intersection(interval, window);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return set.toString();
+        }
+    }
+
+    private static final class Union<T> extends IntervalExpression<T> {
+
+        private final List<IntervalExpression<T>> operands;
+
+        private Union(Operations<T> operations, List<IntervalExpression<T>> operands) {
+            super(operations);
+            this.operands = operands;
+        }
+
+        @Override
+        boolean knownEmpty() {
+            return operands.stream().allMatch(IntervalExpression::knownEmpty);
+        }
+
+        @Override
+        long estimate() {
+            return operands.stream().mapToLong(IntervalExpression::estimate).sum();
+        }
+
+        @Override
+        Interval<T> hull() {
+            T start = null;
+            T end = null;
+            boolean first = true;
+            for (IntervalExpression<T> operand : operands) {
+                if (operand.knownEmpty()) {
+                    continue;
+                }
+                Interval<T> hull = operand.hull();
+                if (first || operations.compareStart(hull.start(), start) < 0) {
+                    start = hull.start();
+                }
+                if (first || operations.compareEnd(hull.end(), end) > 0) {
+                    end = hull.end();
+                }
+                first = false;
+            }
+            return IntervalDefault.of(start, end);
+        }
+
+        @Override
+        Iterator<Interval<T>> open(Interval<T> window) {
+            PriorityQueue<Head<T>> heads = new PriorityQueue<>(
+                    Comparator.comparing(head -> head.interval.start(), operations::compareStart));
+            for (IntervalExpression<T> operand : operands) {
+                if (!operand.knownEmpty()) {
+                    Head.push(heads, operand.open(window));
+                }
+            }
+            return new Cursor<>() {
+                @Override
+                Interval<T> advance() {
+                    Head<T> head = heads.poll();
+                    if (head == null) {
+                        return null;
+                    }
+                    T start = head.interval.start();
+                    T end = head.interval.end();
+                    Head.push(heads, head.iterator);
+                    while (!heads.isEmpty() && operations.compareStartToEnd(heads.peek().interval.start(), end) <= 0) {
+                        head = heads.poll();
+                        if (operations.compareEnd(head.interval.end(), end) > 0) {
+                            end = head.interval.end();
+                        }
+                        Head.push(heads, head.iterator);
+                    }
+                    return IntervalDefault.of(start, end);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream().map(Object::toString).collect(Collectors.joining(" | ", "(", ")"));
+        }
+    }
+
+    private static final class Intersection<T> extends IntervalExpression<T> {
+
+        private final List<IntervalExpression<T>> operands;
+
+        private Intersection(Operations<T> operations, List<IntervalExpression<T>> operands) {
+            super(operations);
+            this.operands = operands;
+        }
+
+        @Override
+        boolean knownEmpty() {
+            return operands.stream().anyMatch(IntervalExpression::knownEmpty);
+        }
+
+        @Override
+        long estimate() {
+            return operands.stream().mapToLong(IntervalExpression::estimate).min().orElse(0);
+        }
+
+        @Override
+        Interval<T> hull() {
+            Interval<T> hull = null;
+            for (IntervalExpression<T> operand : operands) {
+                hull = narrow(hull, operand.hull());
+            }
+            return hull;
+        }
+
+        @Override
+        Iterator<Interval<T>> open(Interval<T> window) {
+            if (knownEmpty()) {
+                return new Empty<>();
+            }
+            for (IntervalExpression<T> operand : operands) {
+                window = narrow(window, operand.hull());
+                if (operations.isEmpty(window)) {
+                    return new Empty<>();
+                }
+            }
+            List<IntervalExpression<T>> ordered = new ArrayList<>(operands);
+            ordered.sort(Comparator.comparingLong(IntervalExpression::estimate));
+            Iterator<Interval<T>> result = ordered.get(0).open(window);
+            for (int i = 1; i < ordered.size(); i++) {
+                result = intersect(result, ordered.get(i).open(window));
+            }
+            return result;
+        }
+
+        private Iterator<Interval<T>> intersect(Iterator<Interval<T>> left, Iterator<Interval<T>> right) {
+            return new Cursor<>() {
+                private Interval<T> fst = next(left);
+                private Interval<T> snd = next(right);
+
+                @Override
+                Interval<T> advance() {
+                    while (fst != null && snd != null) {
+                        Interval<T> intersection = operations.intersection(fst, snd);
+                        if (operations.compareEnd(fst.end(), snd.end()) < 0) {
+                            fst = next(left);
+                        } else {
+                            snd = next(right);
+                        }
+                        if (!operations.isEmpty(intersection)) {
+                            return intersection;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return operands.stream().map(Object::toString).collect(Collectors.joining(" & ", "(", ")"));
+        }
+    }
+
+    private static final class Difference<T> extends IntervalExpression<T> {
+
+        private final IntervalExpression<T> left;
+        private final IntervalExpression<T> right;
+
+        private Difference(Operations<T> operations, IntervalExpression<T> left, IntervalExpression<T> right) {
+            super(operations);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean knownEmpty() {
+            return left.knownEmpty();
+        }
+
+        @Override
+        long estimate() {
+            return left.estimate() + right.estimate();
+        }
+
+        @Override
+        Interval<T> hull() {
+            return left.hull();
+        }
+
+        @Override
+        Iterator<Interval<T>> open(Interval<T> window) {
+            if (left.knownEmpty()) {
+                return new Empty<>();
+            }
+            window = narrow(window, left.hull());
+            if (operations.isEmpty(window)) {
+                return new Empty<>();
+            }
+            if (right.knownEmpty()) {
+                return left.open(window);
+            }
+            Iterator<Interval<T>> minuend = left.open(window);
+            Iterator<Interval<T>> subtrahend = right.open(window);
+            return new Cursor<>() {
+                private Interval<T> current = next(minuend);
+                private Interval<T> removed = next(subtrahend);
+
+                @Override
+                Interval<T> advance() {
+                    while (current != null) {
+                        while (removed != null && operations.compareStartToEnd(current.start(), removed.end()) >= 0) {
+                            removed = next(subtrahend);
+                        }
+                        if (removed == null || operations.compareStartToEnd(removed.start(), current.end()) >= 0) {
+                            Interval<T> result = current;
+                            current = next(minuend);
+                            return result;
+                        }
+                        Interval<T> before = operations.compareStart(removed.start(), current.start()) > 0
+                                ? IntervalDefault.of(current.start(), removed.start())
+                                : null;
+                        current = operations.compareEnd(removed.end(), current.end()) < 0
+                                ? IntervalDefault.of(removed.end(), current.end())
+                                : next(minuend);
+                        if (before != null) {
+                            return before;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " - " + right + ")";
+        }
+    }
+
+    /**
+     * The next interval of an operand of a union, and the rest of the operand.
+     */
+    private record Head<T>(Interval<T> interval, Iterator<Interval<T>> iterator) {
+        static <T> void push(PriorityQueue<Head<T>> heads, Iterator<Interval<T>> iterator) {
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+    }
+
+    /**
+     * Iterator computing one element ahead.
+     */
+    private abstract static class Cursor<T> implements Iterator<Interval<T>> {
+
+        private Interval<T> next;
+        private boolean done;
+
+        /**
+         * Will return the next element, or null if there are no more.
+         */
+        abstract Interval<T> advance();
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = advance();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Interval<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Interval<T> result = next;
+            next = null;
+            return result;
+        }
+
+        static <T> Interval<T> next(Iterator<Interval<T>> iterator) {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+
+    private static final class Empty<T> extends Cursor<T> {
+        @Override
+        Interval<T> advance() {
+            return null;
+        }
+    }
+}
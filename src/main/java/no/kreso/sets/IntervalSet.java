@@ -0,0 +1,354 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Immutable set of values represented as a union of intervals. Unlike {@link Operations#union}, which can not represent
+ * the union of disjoint intervals, this class can represent any finite union of intervals.
+ * <p>
+ * The intervals are kept normalized: sorted, disjoint, non-empty and coalesced, meaning that overlapping and adjacent
+ * intervals are merged. Their bounds are stored in a single flat array, so that the set operations below can be
+ * implemented as single merge passes over both operands, and membership as a binary search.
+ *
+ * @param <T> The type of the interval
+ */
+public final class IntervalSet<T> implements Iterable<Interval<T>> {
+
+    private static final Object[] NO_BOUNDS = new Object[0];
+
+    private final Operations<T> operations;
+
+    /**
+     * Bounds of the intervals in this set, where the interval at index i is stored as [bounds[2i], bounds[2i + 1]).
+     */
+    private final Object[] bounds;
+
+    private IntervalSet(Operations<T> operations, Object[] bounds) {
+        this.operations = operations;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Create the empty set.
+     */
+    public static <T> IntervalSet<T> empty(Operations<T> operations) {
+        return new IntervalSet<>(operations, NO_BOUNDS);
+    }
+
+    /**
+     * Create a set containing a single interval.
+     */
+    public static <T> IntervalSet<T> of(Operations<T> operations, Interval<T> interval) {
+        if (operations.isEmpty(interval)) {
+            return empty(operations);
+        }
+        return new IntervalSet<>(operations, new Object[] {interval.start(), interval.end()});
+    }
+
+    /**
+     * Create a set from intervals in any order. Empty intervals are ignored, and overlapping or adjacent intervals are
+     * merged.
+     */
+    public static <T> IntervalSet<T> of(Operations<T> operations, Collection<? extends Interval<T>> intervals) {
+        List<Interval<T>> sorted = new ArrayList<>(intervals.size());
+        for (Interval<T> interval : intervals) {
+            if (!operations.isEmpty(interval)) {
+                sorted.add(interval);
+            }
+        }
+        sorted.sort((fst, snd) -> operations.compareStart(fst.start(), snd.start()));
+        Builder<T> builder = new Builder<>(operations, sorted.size());
+        for (Interval<T> interval : sorted) {
+            builder.add(interval.start(), interval.end());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Number of disjoint intervals in this set.
+     */
+    public int size() {
+        return bounds.length / 2;
+    }
+
+    public boolean isEmpty() {
+        return bounds.length == 0;
+    }
+
+    public Interval<T> get(int index) {
+        return IntervalDefault.of(start(index), end(index));
+    }
+
+    /**
+     * The disjoint intervals of this set in ascending order.
+     */
+    public List<Interval<T>> intervals() {
+        return new AbstractList<>() {
+            @Override
+            public Interval<T> get(int index) {
+                return IntervalSet.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return IntervalSet.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Interval<T>> iterator() {
+        return intervals().iterator();
+    }
+
+    /**
+     * Will return true if the value is contained in one of the intervals of this set.
+     */
+    public boolean contains(T value) {
+        int index = floor(value);
+        return index >= 0 && operations.compareStartToEnd(value, end(index)) < 0;
+    }
+
+    /**
+     * Will return true if the interval is a subset of one of the intervals of this set. Since the intervals of this
+     * set are coalesced, this is the same as the interval being a subset of this set.
+     */
+    public boolean contains(Interval<T> interval) {
+        if (operations.isEmpty(interval)) {
+            return true;
+        }
+        int index = floor(interval.start());
+        return index >= 0 && operations.compareEnd(interval.end(), end(index)) <= 0;
+    }
+
+    public IntervalSet<T> union(IntervalSet<T> other) {
+        Builder<T> builder = new Builder<>(operations, size() + other.size());
+        int i = 0;
+        int j = 0;
+        while (i < size() || j < other.size()) {
+            boolean takeLeft = j == other.size()
+                    || i < size() && operations.compareStart(start(i), other.start(j)) <= 0;
+            if (takeLeft) {
+                builder.add(start(i), end(i));
+                i++;
+            } else {
+                builder.add(other.start(j), other.end(j));
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    public IntervalSet<T> intersection(IntervalSet<T> other) {
+        Builder<T> builder = new Builder<>(operations, size() + other.size());
+        int i = 0;
+        int j = 0;
+        while (i < size() && j < other.size()) {
+            T start = operations.compareStart(start(i), other.start(j)) >= 0 ? start(i) : other.start(j);
+            int endComparison = operations.compareEnd(end(i), other.end(j));
+            T end = endComparison <= 0 ? end(i) : other.end(j);
+            if (operations.compareStartToEnd(start, end) < 0) {
+                builder.add(start, end);
+            }
+            if (endComparison <= 0) {
+                i++;
+            }
+            if (endComparison >= 0) {
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Will return the values of this set that are not contained in the other set.
+     */
+    public IntervalSet<T> difference(IntervalSet<T> other) {
+        Builder<T> builder = new Builder<>(operations, size() + other.size());
+        int j = 0;
+        for (int i = 0; i < size(); i++) {
+            T start = start(i);
+            T end = end(i);
+            boolean remaining = true;
+            // Skip the intervals of the other set that end before the current remainder starts
+            while (j < other.size() && operations.compareStartToEnd(start, other.end(j)) >= 0) {
+                j++;
+            }
+            int k = j;
+            while (remaining && k < other.size() && operations.compareStartToEnd(other.start(k), end) < 0) {
+                if (operations.compareStart(other.start(k), start) > 0) {
+                    builder.add(start, other.start(k));
+                }
+                if (operations.compareEnd(other.end(k), end) >= 0) {
+                    remaining = false;
+                } else {
+                    start = other.end(k);
+                    k++;
+                }
+            }
+            if (remaining) {
+                builder.add(start, end);
+            }
+            j = k;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Will return the values of the given interval that are not contained in this set.
+     */
+    public IntervalSet<T> complement(Interval<T> within) {
+        return of(operations, within).difference(this);
+    }
+
+    /**
+     * Will return the complement relative to the interval with null at both bounds. With the unbound operations of
+     * OperationsDefault this is the complement in the whole domain. With other null interpretations that interval is
+     * empty, and so is the result; use {@link #complement(Interval)} instead.
+     */
+    public IntervalSet<T> complement() {
+        return complement(IntervalDefault.of(null, null));
+    }
+
+    /**
+     * Concatenates two sets where no interval of the right set starts before an interval of the left set, which is the
+     * case for sets built from consecutive slices of intervals sorted by their lower bound. Only the intervals of the
+     * right set that overlap or are adjacent to the last interval of the left set need to be coalesced, the rest is
+     * copied as is.
+     */
+    static <T> IntervalSet<T> concatenate(IntervalSet<T> left, IntervalSet<T> right) {
+        if (left.isEmpty()) {
+            return right;
+        }
+        if (right.isEmpty()) {
+            return left;
+        }
+        Builder<T> builder = new Builder<>(left.operations, left.size() + right.size());
+        System.arraycopy(left.bounds, 0, builder.bounds, 0, left.bounds.length);
+        builder.length = left.bounds.length;
+        int i = 0;
+        while (i < right.size() && builder.coalesces(right.start(i))) {
+            builder.add(right.start(i), right.end(i));
+            i++;
+        }
+        System.arraycopy(right.bounds, 2 * i, builder.bounds, builder.length, right.bounds.length - 2 * i);
+        builder.length += right.bounds.length - 2 * i;
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntervalSet<?> other)) {
+            return false;
+        }
+        return Arrays.equals(bounds, other.bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+
+    @Override
+    public String toString() {
+        return intervals().toString();
+    }
+
+    Operations<T> operations() {
+        return operations;
+    }
+
+    /**
+     * Index of the first interval ending after the value, or the size of the set if there is none.
+     */
+    int firstEndingAfter(T value) {
+        int index = floor(value);
+        return index >= 0 && operations.compareStartToEnd(value, end(index)) < 0 ? index : index + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T start(int index) {
+        return (T) bounds[2 * index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private T end(int index) {
+        return (T) bounds[2 * index + 1];
+    }
+
+    /**
+     * Index of the last interval starting at or before the value, or -1 if there is none.
+     */
+    private int floor(T value) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (operations.compareStart(start(middle), value) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Collects intervals given in ascending order of their lower bound, and coalesces each one with the previous if
+     * they overlap or are adjacent.
+     */
+    static final class Builder<T> {
+
+        private final Operations<T> operations;
+        private Object[] bounds;
+        private int length;
+
+        Builder(Operations<T> operations, int expectedSize) {
+            this.operations = operations;
+            this.bounds = new Object[2 * Math.max(expectedSize, 1)];
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(T start, T end) {
+            if (operations.compareStartToEnd(start, end) >= 0) {
+                return;
+            }
+            if (coalesces(start)) {
+                if (operations.compareEnd(end, (T) bounds[length - 1]) > 0) {
+                    bounds[length - 1] = end;
+                }
+                return;
+            }
+            if (length == bounds.length) {
+                bounds = Arrays.copyOf(bounds, 2 * length);
+            }
+            bounds[length++] = start;
+            bounds[length++] = end;
+        }
+
+        /**
+         * Will return true if an interval with the given lower bound would be merged with the last interval added.
+         */
+        @SuppressWarnings("unchecked")
+        boolean coalesces(T start) {
+            return length > 0 && operations.compareStartToEnd(start, (T) bounds[length - 1]) <= 0;
+        }
+
+        IntervalSet<T> build() {
+            return new IntervalSet<>(operations, length == 0 ? NO_BOUNDS : Arrays.copyOf(bounds, length));
+        }
+    }
+}
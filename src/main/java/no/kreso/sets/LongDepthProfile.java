@@ -0,0 +1,133 @@
+package no.kreso.sets;
+
+import no.kreso.operations.LongOperations;
+
+import java.util.Arrays;
+
+
+/**
+ * Counterpart of {@link DepthProfile} for bounds encoded as longs, see {@link LongOperations}. The bounds are sorted as
+ * primitive arrays, and the profile is kept in primitive arrays, so that tens of millions of intervals can be profiled
+ * without boxing.
+ */
+public final class LongDepthProfile {
+
+    /**
+     * Lower bounds of the steps, followed by the upper bound of the last step.
+     */
+    private final long[] boundaries;
+    private final int[] depths;
+    private final int maxDepth;
+
+    private LongDepthProfile(long[] boundaries, int[] depths, int maxDepth) {
+        this.boundaries = boundaries;
+        this.depths = depths;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @param starts The lower bounds of the intervals. The array is not modified.
+     * @param ends The upper bounds of the intervals, at the same indices. The array is not modified.
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    public static LongDepthProfile of(long[] starts, long[] ends) {
+        if (starts.length != ends.length) {
+            throw new IllegalArgumentException("Bounds differ in length: " + starts.length + " and " + ends.length);
+        }
+        long[] sortedStarts = new long[starts.length];
+        long[] sortedEnds = new long[ends.length];
+        int count = 0;
+        for (int k = 0; k < starts.length; k++) {
+            if (starts[k] < ends[k]) {
+                sortedStarts[count] = starts[k];
+                sortedEnds[count] = ends[k];
+                count++;
+            }
+        }
+        Arrays.parallelSort(sortedStarts, 0, count);
+        Arrays.parallelSort(sortedEnds, 0, count);
+
+        long[] boundaries = new long[2 * count];
+        int[] depths = new int[2 * count];
+        int steps = 0;
+        int depth = 0;
+        int maxDepth = 0;
+        int i = 0;
+        int j = 0;
+        while (j < count) {
+            // Upper bounds go first, so that adjacent intervals are not counted together
+            long at = Math.min(i < count ? sortedStarts[i] : Long.MAX_VALUE, sortedEnds[j]);
+            while (j < count && sortedEnds[j] == at) {
+                depth--;
+                j++;
+            }
+            while (i < count && sortedStarts[i] == at) {
+                depth++;
+                i++;
+            }
+            if (steps > 0 && depths[steps - 1] == depth) {
+                continue;
+            }
+            boundaries[steps] = at;
+            depths[steps] = depth;
+            maxDepth = Math.max(maxDepth, depth);
+            steps++;
+        }
+        return new LongDepthProfile(Arrays.copyOf(boundaries, steps), Arrays.copyOf(depths, steps), maxDepth);
+    }
+
+    /**
+     * Will return the number of steps, including steps of depth 0 between the intervals.
+     */
+    public int steps() {
+        return Math.max(boundaries.length - 1, 0);
+    }
+
+    public long start(int step) {
+        return boundaries[step];
+    }
+
+    public long end(int step) {
+        return boundaries[step + 1];
+    }
+
+    public int depth(int step) {
+        return depths[step];
+    }
+
+    /**
+     * Will return the greatest number of intervals containing the same point, or 0 if there are no intervals.
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Will return the first point where the depth is at its maximum, or {@link LongOperations#POSITIVE_INFINITY} if
+     * there are no intervals.
+     */
+    public long maxDepthAt() {
+        for (int i = 0; i < steps(); i++) {
+            if (depths[i] == maxDepth) {
+                return boundaries[i];
+            }
+        }
+        return LongOperations.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Will return the total length of the steps at every depth, indexed by depth. Steps bounded by infinity are
+     * infinitely long, which is reported as {@link Long#MAX_VALUE}, as are totals that overflow.
+     */
+    public long[] durations() {
+        long[] durations = new long[maxDepth + 1];
+        for (int i = 0; i < steps(); i++) {
+            long start = boundaries[i];
+            long end = boundaries[i + 1];
+            boolean infinite = start == LongOperations.NEGATIVE_INFINITY || end == LongOperations.POSITIVE_INFINITY;
+            long duration = infinite ? Long.MAX_VALUE : DepthProfile.saturatedAdd(end, -start);
+            durations[depths[i]] = DepthProfile.saturatedAdd(durations[depths[i]], duration);
+        }
+        return durations;
+    }
+}
@@ -0,0 +1,70 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.maps.IntervalMap.Entry;
+import no.kreso.maps.PersistentIntervalMap;
+import no.kreso.operations.Operations;
+
+import java.util.List;
+
+
+/**
+ * Immutable set of disjoint, non-adjacent intervals, where every change returns a new version of the set in O(log n)
+ * time, sharing most of its structure with the old version. This is a {@link PersistentIntervalMap} where every range
+ * has the same value, so that coalescing puts merge overlapping and adjacent intervals. See {@link IntervalSet} for
+ * the flat, array-based counterpart, which is faster to read and to combine with other sets.
+ *
+ * @param <T> The type of the interval
+ */
+public final class PersistentIntervalSet<T> {
+
+    private final PersistentIntervalMap<T, Boolean> map;
+
+    private PersistentIntervalSet(PersistentIntervalMap<T, Boolean> map) {
+        this.map = map;
+    }
+
+    public static <T> PersistentIntervalSet<T> empty(Operations<T> operations) {
+        return new PersistentIntervalSet<>(PersistentIntervalMap.empty(operations));
+    }
+
+    /**
+     * Will return a set that also contains the values of the interval.
+     */
+    public PersistentIntervalSet<T> add(Interval<T> interval) {
+        PersistentIntervalMap<T, Boolean> added = map.putCoalescing(interval, Boolean.TRUE);
+        return added == map ? this : new PersistentIntervalSet<>(added);
+    }
+
+    /**
+     * Will return a set without the values of the interval.
+     */
+    public PersistentIntervalSet<T> remove(Interval<T> interval) {
+        PersistentIntervalMap<T, Boolean> removed = map.remove(interval);
+        return removed == map ? this : new PersistentIntervalSet<>(removed);
+    }
+
+    public boolean contains(T value) {
+        return map.get(value) != null;
+    }
+
+    /**
+     * Will return the intervals of the set in ascending order.
+     */
+    public List<Interval<T>> intervals() {
+        return map.entries().stream().map(Entry::range).toList();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return intervals().toString();
+    }
+}
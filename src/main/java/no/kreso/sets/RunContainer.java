@@ -0,0 +1,130 @@
+package no.kreso.sets;
+
+import java.util.Arrays;
+
+
+/**
+ * Container holding runs of consecutive values, as pairs of the first and the last value of each run, together with
+ * the number of values before each run, so that the rank of a value is found by a binary search. Eight bytes per run,
+ * so below {@link #MAX_RUNS} runs it is smaller than a bitmap.
+ */
+final class RunContainer extends Container {
+
+    static final int MAX_RUNS = WORDS * Long.BYTES / (2 * Character.BYTES + Integer.BYTES);
+
+    private final char[] runs;
+    /**
+     * Number of values in the runs before each run, and the cardinality of the container at the last index.
+     */
+    private final int[] ranks;
+
+    /**
+     * @param runs Sorted, disjoint and non-adjacent half-open ranges, as (start, end) pairs.
+     * @param length Number of elements of the array in use.
+     */
+    RunContainer(int[] runs, int length) {
+        this.runs = new char[length];
+        this.ranks = new int[length / 2 + 1];
+        for (int i = 0; i < length; i += 2) {
+            this.runs[i] = (char) runs[i];
+            this.runs[i + 1] = (char) (runs[i + 1] - 1);
+            ranks[i / 2 + 1] = ranks[i / 2] + runs[i + 1] - runs[i];
+        }
+    }
+
+    int runCount() {
+        return runs.length / 2;
+    }
+
+    /**
+     * Will return the start of run k / 2 if k is even, or its (exclusive) end if k is odd.
+     */
+    int boundary(int k) {
+        return (k & 1) == 0 ? runs[k] : runs[k] + 1;
+    }
+
+    @Override
+    int cardinality() {
+        return ranks[runCount()];
+    }
+
+    @Override
+    boolean contains(int low) {
+        int run = floor(low);
+        return run >= 0 && low <= runs[2 * run + 1];
+    }
+
+    @Override
+    int rank(int low) {
+        int run = floor(low);
+        if (run < 0) {
+            return 0;
+        }
+        return ranks[run] + Math.min(low, runs[2 * run + 1]) - runs[2 * run] + 1;
+    }
+
+    @Override
+    void forEachRun(RunConsumer consumer) {
+        for (int i = 0; i < runs.length; i += 2) {
+            consumer.accept(runs[i], runs[i + 1] + 1);
+        }
+    }
+
+    @Override
+    long[] toWords() {
+        long[] words = new long[WORDS];
+        orInto(words);
+        return words;
+    }
+
+    @Override
+    void orInto(long[] words) {
+        for (int i = 0; i < runs.length; i += 2) {
+            fill(words, runs[i], runs[i + 1] + 1);
+        }
+    }
+
+    @Override
+    void andInto(long[] words) {
+        int previousEnd = 0;
+        for (int i = 0; i < runs.length; i += 2) {
+            clear(words, previousEnd, runs[i]);
+            previousEnd = runs[i + 1] + 1;
+        }
+        clear(words, previousEnd, CHUNK_SIZE);
+    }
+
+    @Override
+    void andNotInto(long[] words) {
+        for (int i = 0; i < runs.length; i += 2) {
+            clear(words, runs[i], runs[i + 1] + 1);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RunContainer other && Arrays.equals(runs, other.runs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(runs);
+    }
+
+    /**
+     * Will return the index of the last run starting at or before the value, or -1 if there is none.
+     */
+    private int floor(int low) {
+        int lo = 0;
+        int hi = runCount() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (runs[2 * mid] <= low) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo - 1;
+    }
+}
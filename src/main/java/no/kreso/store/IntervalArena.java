@@ -0,0 +1,266 @@
+package no.kreso.store;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.LongOperations;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+
+/**
+ * Growable store of intervals with long bounds, kept in direct buffers outside the heap. An interval takes 16 bytes
+ * and no object, so the arena can hold far more intervals than the heap could hold as {@code IntervalDefault}
+ * instances, without adding to the work of the garbage collector. Bounds are encoded as by {@link LongOperations}, and
+ * intervals are addressed by their position in the arena, which is a long.
+ * <p>
+ * The arena is filled in chunks of a fixed number of intervals, each in its own buffer, so that it can grow without
+ * copying and is not limited by the 2 GB size of a single buffer. The operations of this class work on positions and
+ * write their results into the arena, so they neither decode bounds nor create objects. Where an {@link Interval} is
+ * needed, {@link #view} returns a flyweight that reads its bounds from the arena and can be moved between positions.
+ * <p>
+ * Direct buffers count against the limit set by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap
+ * size, and {@link ByteBuffer#allocateDirect} throws an {@link OutOfMemoryError} when a chunk would exceed it, so an
+ * arena larger than the heap needs the limit raised. The memory of a chunk is only reclaimed once its buffer is garbage
+ * collected. {@link #clear} keeps the chunks for reuse, while {@link #release} drops them, so that they can be
+ * reclaimed even if the arena is still referenced. The arena is not thread-safe.
+ */
+public final class IntervalArena implements AutoCloseable {
+
+    private static final int DEFAULT_CHUNK_BITS = 20;
+
+    private final LongOperations operations;
+    private final int chunkBits;
+    private final long chunkMask;
+    private LongBuffer[] chunks = new LongBuffer[0];
+    private long size;
+
+    public IntervalArena(LongOperations operations) {
+        this(operations, DEFAULT_CHUNK_BITS);
+    }
+
+    /**
+     * @param chunkBits Base two logarithm of the number of intervals in a chunk.
+     */
+    IntervalArena(LongOperations operations, int chunkBits) {
+        if (chunkBits < 0 || chunkBits > 26) {
+            throw new IllegalArgumentException("Chunk size out of range: 2^" + chunkBits);
+        }
+        this.operations = operations;
+        this.chunkBits = chunkBits;
+        this.chunkMask = (1L << chunkBits) - 1;
+    }
+
+    public LongOperations operations() {
+        return operations;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Will return the number of intervals the allocated chunks can hold before another chunk is needed.
+     */
+    public long capacity() {
+        return (long) chunks.length << chunkBits;
+    }
+
+    /**
+     * Will add the interval [start, end) to the arena and return its position.
+     */
+    public long add(long start, long end) {
+        long index = size;
+        int chunk = (int) (index >>> chunkBits);
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = ByteBuffer.allocateDirect(2 * Long.BYTES << chunkBits)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+        size++;
+        write(index, start, end);
+        return index;
+    }
+
+    /**
+     * Will add the interval to the arena and return its position. Null bounds are encoded by the operations of the
+     * arena.
+     */
+    public long add(Interval<Long> interval) {
+        return add(operations.encodeStart(interval.start()), operations.encodeEnd(interval.end()));
+    }
+
+    /**
+     * Will replace the interval at the position with [start, end).
+     */
+    public void set(long index, long start, long end) {
+        Objects.checkIndex(index, size);
+        write(index, start, end);
+    }
+
+    public long start(long index) {
+        Objects.checkIndex(index, size);
+        return chunk(index).get(offset(index));
+    }
+
+    public long end(long index) {
+        Objects.checkIndex(index, size);
+        return chunk(index).get(offset(index) + 1);
+    }
+
+    /**
+     * Will remove every interval, keeping the chunks for the intervals added next.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Will remove every interval and drop the chunks, so that their memory is reclaimed when the buffers are garbage
+     * collected. The arena can still be used, and allocates new chunks as intervals are added.
+     */
+    public void release() {
+        size = 0;
+        chunks = new LongBuffer[0];
+    }
+
+    /**
+     * Same as {@link #release}, so that an arena can be scoped by a try-with-resources statement.
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * Will return a view of the interval at the position.
+     */
+    public View view(long index) {
+        Objects.checkIndex(index, size);
+        return new View(index);
+    }
+
+    public boolean isEmpty(long index) {
+        return operations.isEmpty(start(index), end(index));
+    }
+
+    /**
+     * Will return true if the interval at the left position is a subset of the one at the right position.
+     */
+    public boolean subsetOf(long left, long right) {
+        return operations.subsetOf(start(left), end(left), start(right), end(right));
+    }
+
+    /**
+     * Will return true if the intervals at the two positions have a point in common.
+     */
+    public boolean overlaps(long left, long right) {
+        long leftStart = start(left);
+        long leftEnd = end(left);
+        long rightStart = start(right);
+        long rightEnd = end(right);
+        return !operations.isEmpty(
+                operations.intersectionStart(leftStart, leftEnd, rightStart, rightEnd),
+                operations.intersectionEnd(leftStart, leftEnd, rightStart, rightEnd));
+    }
+
+    /**
+     * Will write the intersection of the intervals at the left and right positions to the target position, which may be
+     * one of the other two.
+     */
+    public void intersection(long left, long right, long target) {
+        long leftStart = start(left);
+        long leftEnd = end(left);
+        long rightStart = start(right);
+        long rightEnd = end(right);
+        set(target,
+                operations.intersectionStart(leftStart, leftEnd, rightStart, rightEnd),
+                operations.intersectionEnd(leftStart, leftEnd, rightStart, rightEnd));
+    }
+
+    /**
+     * Will write the union of the intervals at the left and right positions to the target position, which may be one of
+     * the other two. As for {@link no.kreso.operations.Operations#union}, the union of disjoint intervals is empty.
+     */
+    public void union(long left, long right, long target) {
+        long leftStart = start(left);
+        long leftEnd = end(left);
+        long rightStart = start(right);
+        long rightEnd = end(right);
+        set(target,
+                operations.unionStart(leftStart, leftEnd, rightStart, rightEnd),
+                operations.unionEnd(leftStart, leftEnd, rightStart, rightEnd));
+    }
+
+    private void write(long index, long start, long end) {
+        LongBuffer chunk = chunk(index);
+        int offset = offset(index);
+        chunk.put(offset, start);
+        chunk.put(offset + 1, end);
+    }
+
+    private LongBuffer chunk(long index) {
+        return chunks[(int) (index >>> chunkBits)];
+    }
+
+    private int offset(long index) {
+        return (int) (index & chunkMask) << 1;
+    }
+
+    /**
+     * Interval whose bounds are read from a position of the arena, and decoded by its operations. A view reflects
+     * later changes to the interval at its position, and can be moved to another position to avoid creating a view
+     * per interval when iterating. Since a view can move, it is compared by identity.
+     * <p>
+     * Operations may return one of their arguments unchanged, such as the other interval of a union with an empty
+     * one, so the result of passing a view to an Operations may be the view itself. Results that must outlive
+     * the next move of the view should be taken with {@link #snapshot()} first.
+     */
+    public final class View implements Interval<Long> {
+
+        private long index;
+
+        private View(long index) {
+            this.index = index;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        /**
+         * Will move the view to the position and return it.
+         */
+        public View moveTo(long index) {
+            Objects.checkIndex(index, size);
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * Will return an interval with the current bounds of the view, which is not affected by later moves or changes.
+         */
+        public Interval<Long> snapshot() {
+            return IntervalDefault.of(start(), end());
+        }
+
+        @Override
+        public Long start() {
+            return operations.decodeStart(IntervalArena.this.start(index));
+        }
+
+        @Override
+        public Long end() {
+            return operations.decodeEnd(IntervalArena.this.end(index));
+        }
+
+        @Override
+        public String toString() {
+            return "[" + start() + ", " + end() + ")";
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package no.kreso.store;
+
+import no.kreso.index.ImplicitTreeLayout;
+import no.kreso.index.LongPairSort;
+import no.kreso.interval.Interval;
+import no.kreso.operations.LongOperations;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+
+/**
+ * Read-only store of intervals with long bounds, queried directly from a memory mapped file. Bounds are encoded as by
+ * {@link LongOperations}, so positive and negative infinity are represented by their sentinel values. Opening a store
+ * only maps the file, and queries read the mapped pages without creating any objects on the heap.
+ * <p>
+ * The file consists of a header followed by three columns of longs: the lower bounds in ascending order, the upper
+ * bounds in the same order, and the index used for queries. The index is an implicit interval tree over the sorted
+ * intervals: the interval at position i is the node at level k, where k is the number of trailing one bits of i, with
+ * children at i - 2^(k-1) and i + 2^(k-1), and the third column holds the greatest upper bound of the subtree of every
+ * node. A query descends only into subtrees that end after the start of the range, and only passes nodes that start
+ * before its end, so it takes O(log n + k) time for k results, however long some of the stored intervals are. Empty
+ * intervals are not stored.
+ * <p>
+ * Each column is mapped separately and is therefore limited to 2 GB, that is about 268 million intervals.
+ */
+public final class MappedIntervalStore implements AutoCloseable {
+
+    /**
+     * Receives the intervals found by a query, together with their position in the store.
+     */
+    @FunctionalInterface
+    public interface IntervalConsumer {
+        void accept(int index, long start, long end);
+    }
+
+    private static final int MAGIC = 0x49564c31;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAX_SIZE = Integer.MAX_VALUE / Long.BYTES;
+
+    /**
+     * Subtrees at this level or lower are scanned linearly, since their entries are adjacent in the file.
+     */
+    private static final int SCAN_LEVEL = 3;
+
+    private final FileChannel channel;
+    private final int size;
+    private final LongBuffer starts;
+    private final LongBuffer ends;
+    private final LongBuffer maxEnds;
+    private final int rootLevel;
+
+    private MappedIntervalStore(FileChannel channel, int size, LongBuffer starts, LongBuffer ends, LongBuffer maxEnds) {
+        this.channel = channel;
+        this.size = size;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = maxEnds;
+        this.rootLevel = ImplicitTreeLayout.rootLevel(size);
+    }
+
+    /**
+     * Writes the intervals to a new store file, replacing any existing file. Null bounds are encoded by the given
+     * operations.
+     */
+    public static void write(Path path, Collection<? extends Interval<Long>> intervals, LongOperations operations)
+            throws IOException {
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        int i = 0;
+        for (Interval<Long> interval : intervals) {
+            starts[i] = operations.encodeStart(interval.start());
+            ends[i] = operations.encodeEnd(interval.end());
+            i++;
+        }
+        write(path, starts, ends);
+    }
+
+    /**
+     * Writes the intervals [starts[i], ends[i]) to a new store file, replacing any existing file. The arrays are not
+     * modified.
+     */
+    public static void write(Path path, long[] starts, long[] ends) throws IOException {
+        int count = 0;
+        long[] sortedStarts = new long[starts.length];
+        long[] sortedEnds = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < ends[i]) {
+                sortedStarts[count] = starts[i];
+                sortedEnds[count] = ends[i];
+                count++;
+            }
+        }
+        if (count > MAX_SIZE) {
+            throw new IllegalArgumentException("Too many intervals for a single store: " + count);
+        }
+        LongPairSort.sort(sortedStarts, sortedEnds, 0, count);
+        long[] maxEnds = new long[count];
+        ImplicitTreeLayout.computeMaxEnds(
+                count,
+                (fst, snd) -> Long.compare(sortedEnds[fst], sortedEnds[snd]),
+                (node, index) -> maxEnds[node] = sortedEnds[index]);
+
+        long columnSize = (long) count * Long.BYTES;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION).putLong(count);
+            LongBuffer startColumn = map(channel, FileChannel.MapMode.READ_WRITE, 0, columnSize);
+            LongBuffer endColumn = map(channel, FileChannel.MapMode.READ_WRITE, 1, columnSize);
+            LongBuffer maxEndColumn = map(channel, FileChannel.MapMode.READ_WRITE, 2, columnSize);
+            for (int i = 0; i < count; i++) {
+                startColumn.put(i, sortedStarts[i]);
+                endColumn.put(i, sortedEnds[i]);
+                maxEndColumn.put(i, maxEnds[i]);
+            }
+            header.force();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Opens a store file written by {@link #write}.
+     */
+    public static MappedIntervalStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an interval store: " + path);
+            }
+            long count = header.getLong();
+            if (count < 0 || count > MAX_SIZE || channel.size() != HEADER_SIZE + 3 * count * Long.BYTES) {
+                throw new IOException("Corrupt interval store: " + path);
+            }
+            long columnSize = count * Long.BYTES;
+            return new MappedIntervalStore(
+                    channel,
+                    (int) count,
+                    map(channel, FileChannel.MapMode.READ_ONLY, 0, columnSize),
+                    map(channel, FileChannel.MapMode.READ_ONLY, 1, columnSize),
+                    map(channel, FileChannel.MapMode.READ_ONLY, 2, columnSize));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static LongBuffer map(FileChannel channel, FileChannel.MapMode mode, int column, long columnSize)
+            throws IOException {
+        return channel.map(mode, HEADER_SIZE + column * columnSize, columnSize)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asLongBuffer();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long start(int index) {
+        return starts.get(index);
+    }
+
+    public long end(int index) {
+        return ends.get(index);
+    }
+
+    /**
+     * Will pass every interval containing the point to the consumer, in descending order of lower bound.
+     */
+    public void forEachContaining(long point, IntervalConsumer consumer) {
+        query(point, point, consumer);
+    }
+
+    /**
+     * Will pass every interval overlapping [from, to) to the consumer, in descending order of lower bound.
+     */
+    public void forEachOverlapping(long from, long to, IntervalConsumer consumer) {
+        if (from < to) {
+            query(from, to - 1, consumer);
+        }
+    }
+
+    /**
+     * Will return the number of intervals overlapping [from, to).
+     */
+    public int countOverlapping(long from, long to) {
+        int[] count = new int[1];
+        forEachOverlapping(from, to, (index, start, end) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Will pass every interval that ends after from and starts at or before lastStart to the consumer, and return the
+     * number of entries of the store that were read to find them.
+     */
+    int query(long from, long lastStart, IntervalConsumer consumer) {
+        return size == 0 ? 0 : query((1 << rootLevel) - 1, rootLevel, from, lastStart, consumer);
+    }
+
+    /**
+     * Visits the subtree of the node, right before left, so that intervals are found in descending order of lower
+     * bound. Nodes past the end of the store have no entry, and only their left subtree can have any.
+     */
+    private int query(int node, int level, long from, long lastStart, IntervalConsumer consumer) {
+        if (node >= size) {
+            return level == 0 ? 0 : query(node - (1 << (level - 1)), level - 1, from, lastStart, consumer);
+        }
+        if (maxEnds.get(node) <= from) {
+            return 1;
+        }
+        if (level <= SCAN_LEVEL) {
+            int first = node - (1 << level) + 1;
+            int last = Math.min(node + (1 << level) - 1, size - 1);
+            for (int i = last; i >= first; i--) {
+                long end = ends.get(i);
+                if (end > from && starts.get(i) <= lastStart) {
+                    consumer.accept(i, starts.get(i), end);
+                }
+            }
+            return last - first + 1;
+        }
+        int visited = 1;
+        int half = 1 << (level - 1);
+        long start = starts.get(node);
+        if (start <= lastStart) {
+            visited += query(node + half, level - 1, from, lastStart, consumer);
+            long end = ends.get(node);
+            if (end > from) {
+                consumer.accept(node, start, end);
+            }
+        }
+        return visited + query(node - half, level - 1, from, lastStart, consumer);
+    }
+
+    /**
+     * Closes the file. The mapping itself is released when the store is garbage collected, so the store must not be
+     * used after it is closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
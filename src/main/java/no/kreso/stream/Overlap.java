@@ -0,0 +1,10 @@
+package no.kreso.stream;
+
+import no.kreso.interval.Interval;
+
+
+/**
+ * A pair of overlapping intervals together with their intersection, as produced by {@link OverlapJoin}.
+ */
+public record Overlap<T, L extends Interval<T>, R extends Interval<T>>(L left, R right, Interval<T> intersection) {
+}
@@ -0,0 +1,156 @@
+package no.kreso.stream;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Streaming join of two sequences of intervals, producing every pair of overlapping intervals. Both inputs must be
+ * sorted by their lower bound, according to {@link Operations#compareStart}.
+ * <p>
+ * The inputs are consumed with a sweep line. Only the intervals that contain the current position of the sweep line
+ * are kept, so memory is bounded by the maximum number of overlapping intervals, and not by the length of the inputs.
+ * Empty intervals are skipped, since they overlap nothing.
+ *
+ * @param <T> The type of the interval
+ * @param <L> The type of the intervals of the left input
+ * @param <R> The type of the intervals of the right input
+ */
+public final class OverlapJoin<T, L extends Interval<T>, R extends Interval<T>>
+        implements Iterator<Overlap<T, L, R>> {
+
+    private final Operations<T> operations;
+    private final Iterator<? extends L> leftInput;
+    private final Iterator<? extends R> rightInput;
+    private final List<L> leftActive = new ArrayList<>();
+    private final List<R> rightActive = new ArrayList<>();
+    private final Queue<Overlap<T, L, R>> pending = new ArrayDeque<>();
+    private L nextLeft;
+    private R nextRight;
+
+    private OverlapJoin(Operations<T> operations, Iterator<? extends L> left, Iterator<? extends R> right) {
+        this.operations = operations;
+        this.leftInput = left;
+        this.rightInput = right;
+        this.nextLeft = advance(left, null);
+        this.nextRight = advance(right, null);
+    }
+
+    public static <T, L extends Interval<T>, R extends Interval<T>> Iterator<Overlap<T, L, R>> join(
+            Iterator<? extends L> left,
+            Iterator<? extends R> right,
+            Operations<T> operations
+    ) {
+        return new OverlapJoin<>(operations, left, right);
+    }
+
+    /**
+     * Lazily joins the streams. Closing the returned stream closes both inputs.
+     */
+    public static <T, L extends Interval<T>, R extends Interval<T>> Stream<Overlap<T, L, R>> join(
+            Stream<? extends L> left,
+            Stream<? extends R> right,
+            Operations<T> operations
+    ) {
+        Iterator<Overlap<T, L, R>> iterator = join(left.iterator(), right.iterator(), operations);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(left::close)
+                .onClose(right::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending.isEmpty() && sweep()) {
+            // Keep sweeping until a pair is found or the inputs are exhausted
+        }
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public Overlap<T, L, R> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pending.remove();
+    }
+
+    /**
+     * Moves the sweep line to the next interval, in order of lower bound, and pairs it with the active intervals of
+     * the other input. Returns false when no more pairs can be produced.
+     */
+    private boolean sweep() {
+        boolean leftDone = nextLeft == null && leftActive.isEmpty();
+        boolean rightDone = nextRight == null && rightActive.isEmpty();
+        if (nextLeft == null && nextRight == null || leftDone || rightDone) {
+            return false;
+        }
+        boolean takeLeft = nextRight == null
+                || nextLeft != null && operations.compareStart(nextLeft.start(), nextRight.start()) <= 0;
+        if (takeLeft) {
+            L left = nextLeft;
+            nextLeft = advance(leftInput, left);
+            evict(left.start());
+            for (R right : rightActive) {
+                pending.add(new Overlap<>(left, right, operations.intersection(left, right)));
+            }
+            leftActive.add(left);
+        } else {
+            R right = nextRight;
+            nextRight = advance(rightInput, right);
+            evict(right.start());
+            for (L left : leftActive) {
+                pending.add(new Overlap<>(left, right, operations.intersection(left, right)));
+            }
+            rightActive.add(right);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the active intervals that end at or before the position of the sweep line. Since every later interval
+     * starts at or after that position, they can not overlap anything that is still to come.
+     */
+    private void evict(T position) {
+        evict(leftActive, position);
+        evict(rightActive, position);
+    }
+
+    private void evict(List<? extends Interval<T>> active, T position) {
+        for (int i = active.size() - 1; i >= 0; i--) {
+            if (operations.compareStartToEnd(position, active.get(i).end()) >= 0) {
+                int last = active.size() - 1;
+                swap(active, i, last);
+                active.remove(last);
+            }
+        }
+    }
+
+    private <U extends Interval<T>> U advance(Iterator<? extends U> input, U previous) {
+        while (input.hasNext()) {
+            U next = input.next();
+            if (operations.isEmpty(next)) {
+                continue;
+            }
+            if (previous != null && operations.compareStart(next.start(), previous.start()) < 0) {
+                throw new IllegalStateException("Input is not sorted by start: " + next + " after " + previous);
+            }
+            return next;
+        }
+        return null;
+    }
+
+    private static <U> void swap(List<U> list, int i, int j) {
+        list.set(i, list.set(j, list.get(i)));
+    }
+}
@@ -0,0 +1,119 @@
+package no.kreso.stream;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+
+/**
+ * Stateful stage that coalesces a stream of intervals arriving in roughly ascending order, merging those that overlap
+ * or are adjacent. Progress is signalled by a watermark: the promise that no interval starting before it will arrive
+ * anymore. Once the watermark passes the upper bound of a coalesced interval, nothing can extend it, so it is emitted
+ * downstream and forgotten. Memory is therefore bounded by the intervals within the lateness window, and not by the
+ * length of the stream.
+ * <p>
+ * Intervals that break the promise, by starting before the watermark, are passed to the late handler instead, since
+ * they may overlap intervals already emitted. Empty intervals are ignored. Intervals are emitted in ascending order,
+ * disjoint and non-adjacent. Instances are not thread-safe.
+ *
+ * @param <T> The type of the interval
+ */
+public final class StreamingCoalescer<T> {
+
+    private final Operations<T> operations;
+    private final Consumer<? super Interval<T>> downstream;
+    private final Consumer<? super Interval<T>> lateHandler;
+    /**
+     * Coalesced intervals not yet emitted, by their lower bound. They are disjoint, so they are ordered by their upper
+     * bound too.
+     */
+    private final TreeMap<T, Interval<T>> open;
+    private T watermark;
+    private boolean hasWatermark;
+
+    /**
+     * Drops late intervals.
+     */
+    public StreamingCoalescer(Operations<T> operations, Consumer<? super Interval<T>> downstream) {
+        this(operations, downstream, interval -> {
+        });
+    }
+
+    public StreamingCoalescer(
+            Operations<T> operations,
+            Consumer<? super Interval<T>> downstream,
+            Consumer<? super Interval<T>> lateHandler
+    ) {
+        this.operations = operations;
+        this.downstream = downstream;
+        this.lateHandler = lateHandler;
+        this.open = new TreeMap<>(operations::compareStart);
+    }
+
+    /**
+     * Merges the interval with the open intervals it overlaps or is adjacent to, or passes it to the late handler if it
+     * starts before the watermark.
+     */
+    public void accept(Interval<T> interval) {
+        if (operations.isEmpty(interval)) {
+            return;
+        }
+        if (hasWatermark && operations.compareStart(interval.start(), watermark) < 0) {
+            lateHandler.accept(interval);
+            return;
+        }
+        Interval<T> merged = interval;
+        Map.Entry<T, Interval<T>> floor = open.floorEntry(interval.start());
+        if (floor != null && operations.compareStartToEnd(interval.start(), floor.getValue().end()) <= 0) {
+            merged = operations.union(floor.getValue(), merged);
+            open.remove(floor.getKey());
+        }
+        Map.Entry<T, Interval<T>> next = open.ceilingEntry(merged.start());
+        while (next != null && operations.compareStartToEnd(next.getKey(), merged.end()) <= 0) {
+            merged = operations.union(merged, next.getValue());
+            open.remove(next.getKey());
+            next = open.higherEntry(next.getKey());
+        }
+        open.put(merged.start(), merged);
+    }
+
+    /**
+     * Advances the watermark, and emits the coalesced intervals that end before it. A watermark lower than the current
+     * one is ignored.
+     */
+    public void advanceWatermark(T watermark) {
+        Objects.requireNonNull(watermark, "watermark");
+        if (hasWatermark && operations.compareStart(watermark, this.watermark) <= 0) {
+            return;
+        }
+        this.watermark = watermark;
+        this.hasWatermark = true;
+        Map.Entry<T, Interval<T>> first = open.firstEntry();
+        while (first != null && operations.compareStartToEnd(watermark, first.getValue().end()) > 0) {
+            open.pollFirstEntry();
+            downstream.accept(first.getValue());
+            first = open.firstEntry();
+        }
+    }
+
+    /**
+     * Emits all open intervals, as at the end of the stream. The watermark is kept, so intervals starting before it
+     * are still late.
+     */
+    public void flush() {
+        while (!open.isEmpty()) {
+            downstream.accept(open.pollFirstEntry().getValue());
+        }
+    }
+
+    /**
+     * Will return the number of coalesced intervals not yet emitted.
+     */
+    public int pending() {
+        return open.size();
+    }
+}
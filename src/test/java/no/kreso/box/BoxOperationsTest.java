@@ -0,0 +1,54 @@
+package no.kreso.box;
+
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoxOperationsTest {
+
+    private final Axis<LocalDate> time = new Axis<>(0, OperationsDefault.<LocalDate>unbound());
+    private final Axis<Integer> quantity = new Axis<>(1, OperationsDefault.<Integer>leftBound());
+    private final BoxOperations operations = new BoxOperations(time, quantity);
+
+    private final LocalDate jan01st = LocalDate.of(2025, 1, 1);
+    private final LocalDate feb01st = LocalDate.of(2025, 2, 1);
+    private final LocalDate mar01st = LocalDate.of(2025, 3, 1);
+
+    @Test
+    public void perAxis() {
+        Box rule = BoxDefault.of(IntervalDefault.of(jan01st, mar01st), IntervalDefault.of(10, null));
+        Box order = BoxDefault.of(IntervalDefault.of(feb01st, null), IntervalDefault.of(20, 30));
+
+        Box intersection = operations.intersection(rule, order);
+        assertEquals(IntervalDefault.of(feb01st, mar01st), intersection.interval(time));
+        assertEquals(IntervalDefault.of(20, 30), intersection.interval(quantity));
+        assertTrue(operations.overlaps(rule, order));
+        assertFalse(operations.subsetOf(order, rule));
+        assertTrue(operations.subsetOf(intersection, rule));
+        assertTrue(operations.subsetOf(intersection, order));
+
+        Box hull = operations.hull(rule, order);
+        assertEquals(IntervalDefault.of(jan01st, null), hull.interval(time));
+        assertEquals(IntervalDefault.of(10, null), hull.interval(quantity));
+    }
+
+    @Test
+    public void emptiness() {
+        Box empty = BoxDefault.of(IntervalDefault.of(jan01st, feb01st), IntervalDefault.of(null, 5));
+        Box rule = BoxDefault.of(IntervalDefault.of(jan01st, mar01st), IntervalDefault.of(1, 5));
+        assertTrue(operations.isEmpty(empty));
+        assertFalse(operations.overlaps(empty, rule));
+        assertTrue(operations.subsetOf(empty, rule));
+        assertEquals(rule, operations.hull(empty, rule));
+        assertEquals(
+                BoxDefault.of(IntervalDefault.of(feb01st, feb01st), IntervalDefault.of(1, 5)),
+                operations.validate(BoxDefault.of(IntervalDefault.of(feb01st, jan01st), IntervalDefault.of(1, 5))));
+        assertThrows(IllegalArgumentException.class, () -> new BoxOperations(quantity));
+        assertThrows(IllegalArgumentException.class,
+                () -> operations.validate(BoxDefault.of(IntervalDefault.of(jan01st, feb01st))));
+    }
+}
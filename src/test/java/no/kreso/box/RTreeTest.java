@@ -0,0 +1,80 @@
+package no.kreso.box;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RTreeTest {
+
+    private final BoxOperations operations = new BoxOperations(
+            new Axis<>(0, OperationsDefault.<Integer>unbound()),
+            new Axis<>(1, OperationsDefault.<Integer>unbound()),
+            new Axis<>(2, OperationsDefault.<Integer>unbound()));
+
+    @Test
+    public void small() {
+        Box first = BoxDefault.of(IntervalDefault.of(0, 10), IntervalDefault.of(0, 10), IntervalDefault.of(null, null));
+        Box second = BoxDefault.of(IntervalDefault.of(5, 15), IntervalDefault.of(20, 30), IntervalDefault.of(0, 1));
+        Box empty = BoxDefault.of(IntervalDefault.of(5, 15), IntervalDefault.of(20, 20), IntervalDefault.of(0, 1));
+        RTree<Box> tree = RTree.bulkLoad(List.of(first, second, empty), operations);
+        assertEquals(2, tree.size());
+        Box query = BoxDefault.of(IntervalDefault.of(8, 9), IntervalDefault.of(null, null), IntervalDefault.of(0, 5));
+        assertEquals(new HashSet<>(List.of(first, second)), new HashSet<>(tree.overlapping(query)));
+        Box miss = BoxDefault.of(IntervalDefault.of(8, 9), IntervalDefault.of(10, 20), IntervalDefault.of(0, 5));
+        assertEquals(List.of(), tree.overlapping(miss));
+        assertTrue(RTree.bulkLoad(List.of(), operations).overlapping(query).isEmpty());
+    }
+
+    /**
+     * Enough boxes for three levels, compared against checking every box.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(19);
+        List<Box> boxes = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            boxes.add(new Rule(randomBox(random, 5), i));
+        }
+        RTree<Box> tree = RTree.bulkLoad(boxes, operations);
+        for (int query = 0; query < 200; query++) {
+            Box range = randomBox(random, 100);
+            List<Box> expected = boxes.stream().filter(box -> operations.overlaps(box, range)).toList();
+            List<Box> actual = tree.overlapping(range);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        }
+    }
+
+    private Box randomBox(Random random, int maxLength) {
+        Interval<?>[] intervals = new Interval<?>[3];
+        for (int axis = 0; axis < 3; axis++) {
+            Integer start = random.nextInt(50) == 0 ? null : random.nextInt(1000);
+            Integer end = random.nextInt(50) == 0 ? null : (start == null ? 500 : start) + random.nextInt(maxLength);
+            intervals[axis] = IntervalDefault.of(start, end);
+        }
+        return BoxDefault.of(intervals);
+    }
+
+    /**
+     * Boxes are made distinct by their index, so that every expected box can be told apart.
+     */
+    private record Rule(Box box, int index) implements Box {
+        @Override
+        public int dimensions() {
+            return box.dimensions();
+        }
+
+        @Override
+        public Interval<?> interval(int axis) {
+            return box.interval(axis);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package no.kreso.codec;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalCodecTest {
+
+    @Test
+    public void longs() throws IOException {
+        roundTrip(new IntervalCodec<>(BoundEncoders.longs()), List.of(
+                IntervalDefault.of(null, 5L),
+                IntervalDefault.of(3L, 10L),
+                IntervalDefault.of(Long.MIN_VALUE, Long.MAX_VALUE),
+                IntervalDefault.of(Long.MAX_VALUE, Long.MIN_VALUE),
+                IntervalDefault.of(-7L, null),
+                IntervalDefault.of(null, null)));
+    }
+
+    @Test
+    public void dates() throws IOException {
+        IntervalCodec<LocalDate> codec = new IntervalCodec<>(BoundEncoders.localDates());
+        List<Interval<LocalDate>> days = new ArrayList<>();
+        LocalDate first = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            days.add(IntervalDefault.of(first.plusDays(i), first.plusDays(i + 1)));
+        }
+        days.add(IntervalDefault.of(first.plusDays(1000), null));
+        byte[] bytes = roundTrip(codec, days);
+        assertTrue(bytes.length < 3 * days.size() + 10);
+    }
+
+    @Test
+    public void instants() throws IOException {
+        roundTrip(new IntervalCodec<>(BoundEncoders.instants()), List.of(
+                IntervalDefault.of(Instant.parse("1969-12-31T23:59:59.999999999Z"), Instant.EPOCH),
+                IntervalDefault.of(Instant.parse("2025-02-05T10:15:30.123Z"), null)));
+        IntervalCodec<Instant> codec = new IntervalCodec<>(BoundEncoders.instants());
+        assertThrows(ArithmeticException.class, () -> codec.toBytes(List.of(IntervalDefault.of(Instant.MAX, null))));
+    }
+
+    @Test
+    public void fallback() throws IOException {
+        roundTrip(new IntervalCodec<>(BoundEncoders.strings()), List.of(
+                IntervalDefault.of("a", "b"),
+                IntervalDefault.of(null, "z")));
+        roundTrip(new IntervalCodec<>(BoundEncoders.serialized(BigDecimal.class)), List.of(
+                IntervalDefault.of(new BigDecimal("1.5"), null)));
+    }
+
+    /**
+     * Java serialization only accepts the type of the bound and the value classes of the JDK.
+     */
+    @Test
+    public void serializationFilter() {
+        IntervalCodec<Holder> codec = new IntervalCodec<>(BoundEncoders.serialized(Holder.class));
+        byte[] bytes = codec.toBytes(List.of(IntervalDefault.of(new Holder(new ArrayList<>(List.of("a"))), null)));
+        assertThrows(InvalidClassException.class, () -> codec.fromBytes(bytes));
+    }
+
+    @Test
+    public void corruptSize() {
+        IntervalCodec<Long> codec = new IntervalCodec<>(BoundEncoders.longs());
+        // A size of 2^31 - 1 followed by a single interval
+        assertThrows(IOException.class, () -> codec.fromBytes(new byte[]{-1, -1, -1, -1, 7, 3}));
+        // A size that does not fit in a long
+        byte[] negative = {-1, -1, -1, -1, -1, -1, -1, -1, -1, 1};
+        assertThrows(IOException.class, () -> codec.fromBytes(negative));
+    }
+
+    private <T> byte[] roundTrip(IntervalCodec<T> codec, List<Interval<T>> intervals) throws IOException {
+        byte[] bytes = codec.toBytes(intervals);
+        assertEquals(intervals, codec.fromBytes(bytes));
+        return bytes;
+    }
+
+    private record Holder(List<String> values) implements Serializable { }
+}
@@ -307,4 +307,17 @@ public class CompositeTest {
         assertTrue(intersection.isEmpty());
     }
 
+    @Test
+    public void operandsAreReused() {
+        Interval interval = Interval.of(feb05th, feb20th);
+        Interval subset = Interval.of(feb10th, feb11th);
+        Interval empty = Interval.of(feb20th, feb20th);
+
+        assertSame(subset, interval.intersection(subset));
+        assertSame(subset, subset.intersection(interval));
+        assertSame(interval, interval.union(subset));
+        assertSame(interval, interval.union(empty));
+        assertSame(empty, empty.intersection(interval));
+    }
+
 }
@@ -0,0 +1,143 @@
+package no.kreso.composites;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.Operations;
+import no.kreso.operations.TimeOperations;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemporalCompositeTest {
+
+    LocalDate jan20th = LocalDate.of(2025, 1, 20);
+    LocalDate feb01st = LocalDate.of(2025, 2, 1);
+    LocalDate mar01st = LocalDate.of(2025, 3, 1);
+    LocalDate mar10th = LocalDate.of(2025, 3, 10);
+
+    @Test
+    public void length() {
+        LocalDateInterval interval = LocalDateInterval.of(jan20th, mar10th);
+        assertEquals(49, interval.length(ChronoUnit.DAYS));
+        assertEquals(1, interval.length(ChronoUnit.MONTHS));
+        assertEquals(0, LocalDateInterval.of(mar10th, jan20th).length(ChronoUnit.DAYS));
+        assertThrows(IllegalStateException.class, () -> LocalDateInterval.of(null, mar10th).length(ChronoUnit.DAYS));
+
+        Instant start = Instant.parse("2025-02-05T10:00:00Z");
+        assertEquals(90, InstantInterval.of(start, start.plusSeconds(5400)).length(ChronoUnit.MINUTES));
+    }
+
+    @Test
+    public void shift() {
+        LocalDateInterval shifted = LocalDateInterval.of(jan20th, null).shift(1, ChronoUnit.MONTHS);
+        assertEquals(LocalDate.of(2025, 2, 20), shifted.start());
+        assertNull(shifted.end());
+
+        LocalDateTime noon = LocalDateTime.of(2025, 2, 5, 12, 0);
+        LocalDateTimeInterval hour = LocalDateTimeInterval.of(noon, noon.plusHours(1)).shift(-30, ChronoUnit.MINUTES);
+        assertEquals(noon.minusMinutes(30), hour.start());
+        assertEquals(noon.plusMinutes(30), hour.end());
+    }
+
+    @Test
+    public void split() {
+        List<LocalDateInterval> months = LocalDateInterval.of(jan20th, mar10th).split(ChronoUnit.MONTHS);
+        assertEquals(List.of(jan20th, feb01st, mar01st), months.stream().map(LocalDateInterval::start).toList());
+        assertEquals(List.of(feb01st, mar01st, mar10th), months.stream().map(LocalDateInterval::end).toList());
+
+        List<LocalDateInterval> weeks = LocalDateInterval.of(jan20th, feb01st).split(ChronoUnit.WEEKS);
+        assertEquals(List.of(jan20th, LocalDate.of(2025, 1, 27)), weeks.stream().map(LocalDateInterval::start).toList());
+
+        assertTrue(LocalDateInterval.of(mar10th, mar10th).split(ChronoUnit.DAYS).isEmpty());
+        assertThrows(IllegalStateException.class, () -> LocalDateInterval.of(jan20th, null).split(ChronoUnit.DAYS));
+
+        LocalDateTime start = LocalDateTime.of(2025, 2, 5, 22, 30);
+        List<LocalDateTimeInterval> days = LocalDateTimeInterval.of(start, start.plusHours(3)).split(ChronoUnit.DAYS);
+        assertEquals(2, days.size());
+        assertEquals(LocalDateTime.of(2025, 2, 6, 0, 0), days.get(0).end());
+
+        List<InstantInterval> hours = InstantInterval.of(
+                Instant.parse("2025-02-05T10:15:00Z"), Instant.parse("2025-02-05T12:00:00Z")).split(ChronoUnit.HOURS);
+        assertEquals(List.of(Instant.parse("2025-02-05T11:00:00Z"), Instant.parse("2025-02-05T12:00:00Z")),
+                hours.stream().map(InstantInterval::end).toList());
+
+        ZoneOffset offset = ZoneOffset.ofHours(1);
+        List<OffsetDateTimeInterval> local = OffsetDateTimeInterval.of(
+                OffsetDateTime.of(2025, 1, 31, 23, 30, 0, 0, offset),
+                OffsetDateTime.of(2025, 2, 1, 1, 0, 0, 0, offset)).split(ChronoUnit.MONTHS);
+        assertEquals(OffsetDateTime.of(2025, 2, 1, 0, 0, 0, 0, offset), local.get(0).end());
+    }
+
+    @Test
+    public void compositeOperations() {
+        LocalDateInterval interval = LocalDateInterval.of(jan20th, mar10th);
+        LocalDateInterval subset = LocalDateInterval.of(feb01st, mar01st);
+        assertSame(subset, interval.intersection(subset));
+        assertTrue(subset.subsetOf(interval));
+        assertTrue(LocalDateInterval.of(jan20th, feb01st).intersection(LocalDateInterval.of(mar01st, null)).isEmpty());
+    }
+
+    /**
+     * Bounds far outside the range of nanoseconds since the epoch, such as the common sentinel 9999-12-31.
+     */
+    @Test
+    public void sentinels() {
+        LocalDateTime now = LocalDateTime.of(2025, 2, 5, 12, 0);
+        LocalDateTime sentinel = LocalDateTime.of(9999, 12, 31, 0, 0);
+        LocalDateTimeInterval open = LocalDateTimeInterval.of(now, sentinel);
+        assertFalse(open.isEmpty());
+        assertTrue(open.subsetOf(LocalDateTimeInterval.of(LocalDateTime.MIN, LocalDateTime.MAX)));
+        assertTrue(LocalDateTimeInterval.of(LocalDateTime.MAX, null).intersection(open).isEmpty());
+        assertSame(open, open.intersection(LocalDateTimeInterval.of(null, null)));
+
+        assertFalse(InstantInterval.of(Instant.MIN, Instant.MAX).isEmpty());
+        assertTrue(InstantInterval.of(Instant.MAX, Instant.MIN).isEmpty());
+        assertFalse(LocalDateInterval.of(LocalDate.MIN, LocalDate.MAX).isEmpty());
+        OffsetDateTimeInterval union = OffsetDateTimeInterval.of(OffsetDateTime.MIN, OffsetDateTime.MAX)
+                .union(OffsetDateTimeInterval.of(OffsetDateTime.MAX, null));
+        assertEquals(OffsetDateTime.MIN, union.start());
+        assertNull(union.end());
+    }
+
+    /**
+     * Compares the keyed comparisons of the composites against the Operations of their type, with bounds at nanosecond
+     * precision, in different offsets, at the ends of the range and null.
+     */
+    @Test
+    public void randomized() {
+        Operations<OffsetDateTime> operations = TimeOperations.offsetDateTime();
+        Random random = new Random(59);
+        for (int i = 0; i < 5000; i++) {
+            OffsetDateTimeInterval left = OffsetDateTimeInterval.of(randomBound(random), randomBound(random));
+            OffsetDateTimeInterval right = OffsetDateTimeInterval.of(randomBound(random), randomBound(random));
+            assertEquals(operations.isEmpty(left), left.isEmpty());
+            assertEquals(operations.subsetOf(left, right), left.subsetOf(right));
+            assertBounds(operations.intersection(left, right), left.intersection(right));
+            assertBounds(operations.union(left, right), left.union(right));
+        }
+    }
+
+    private static OffsetDateTime randomBound(Random random) {
+        return switch (random.nextInt(20)) {
+            case 0 -> null;
+            case 1 -> OffsetDateTime.MIN;
+            case 2 -> OffsetDateTime.MAX;
+            default -> OffsetDateTime.of(
+                    LocalDateTime.of(9999, 12, 31, 0, 0).minusSeconds(random.nextInt(3)),
+                    ZoneOffset.ofHours(random.nextInt(-1, 2))).plusNanos(random.nextInt(3));
+        };
+    }
+
+    private static <T> void assertBounds(Interval<T> expected, Interval<T> actual) {
+        assertEquals(expected.start(), actual.start());
+        assertEquals(expected.end(), actual.end());
+    }
+}
@@ -0,0 +1,120 @@
+package no.kreso.index;
+
+import no.kreso.index.BitemporalStore.Changes;
+import no.kreso.index.BitemporalStore.Fact;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitemporalStoreTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void corrections() {
+        BitemporalStore<Integer, String> store = new BitemporalStore<>(operations);
+        Fact<Integer, String> salary = store.assertFact("salary 100", IntervalDefault.of(1, null), 10);
+        Fact<Integer, String> retracted = store.retract(salary, 20);
+        Fact<Integer, String> corrected = store.assertFact("salary 110", IntervalDefault.of(1, null), 20);
+
+        assertEquals(IntervalDefault.of(10, 20), retracted.recorded());
+        assertEquals(List.of(), store.asOf(5, 9));
+        assertEquals(List.of(retracted), store.asOf(5, 15));
+        assertEquals(List.of(corrected), store.asOf(5, 20));
+        assertEquals(List.of(), store.asOf(0, 20));
+        assertEquals(List.of(corrected), store.asOf(IntervalDefault.of(0, 2), 1000));
+        assertEquals(2, store.history(5).size());
+
+        Changes<Integer, String> changes = store.changedBetween(15, 25);
+        assertEquals(List.of(corrected), changes.asserted());
+        assertEquals(List.of(retracted), changes.retracted());
+        assertEquals(List.of(retracted, corrected), store.changedBetween(0, 100).asserted());
+
+        assertThrows(IllegalArgumentException.class, () -> store.retract(salary, 30));
+        assertThrows(IllegalArgumentException.class, () -> store.retract(corrected, 20));
+        assertThrows(IllegalArgumentException.class, () -> store.assertFact("none", IntervalDefault.of(3, 3), 30));
+    }
+
+    @Test
+    public void randomized() {
+        Random random = new Random(17);
+        BitemporalStore<Integer, Integer> store = new BitemporalStore<>(operations);
+        List<Fact<Integer, Integer>> current = new ArrayList<>();
+        List<Fact<Integer, Integer>> all = new ArrayList<>();
+        for (int time = 0; time < 300; time++) {
+            if (!current.isEmpty() && random.nextBoolean()) {
+                Fact<Integer, Integer> fact = current.remove(random.nextInt(current.size()));
+                all.remove(fact);
+                all.add(store.retract(fact, time));
+            }
+            Integer start = random.nextInt(10) == 0 ? null : random.nextInt(100);
+            Integer end = random.nextInt(10) == 0 ? null : start == null ? random.nextInt(100) : start + 1 + random.nextInt(30);
+            Fact<Integer, Integer> fact = store.assertFact(time, IntervalDefault.of(start, end), time);
+            current.add(fact);
+            all.add(fact);
+        }
+        for (int query = 0; query < 200; query++) {
+            int validTime = random.nextInt(120) - 10;
+            int transactionTime = random.nextInt(320) - 10;
+            List<Fact<Integer, Integer>> expected = all.stream()
+                    .filter(fact -> contains(fact.valid().start(), fact.valid().end(), validTime))
+                    .filter(fact -> contains(fact.recorded().start(), fact.recorded().end(), transactionTime))
+                    .toList();
+            assertEquals(new HashSet<>(expected), new HashSet<>(store.asOf(validTime, transactionTime)));
+        }
+    }
+
+    /**
+     * Retracts most facts in several rounds, so that versions are merged and rebuilt, and compares every kind of query
+     * against a scan of all versions.
+     */
+    @Test
+    public void manyVersions() {
+        Random random = new Random(19);
+        BitemporalStore<Integer, Integer> store = new BitemporalStore<>(operations);
+        List<Fact<Integer, Integer>> current = new ArrayList<>();
+        List<Fact<Integer, Integer>> all = new ArrayList<>();
+        int time = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 500; i++) {
+                int start = random.nextInt(1000);
+                int end = start + 1 + random.nextInt(50);
+                Fact<Integer, Integer> fact = store.assertFact(i, IntervalDefault.of(start, end), time++);
+                current.add(fact);
+                all.add(fact);
+            }
+            while (current.size() > 100) {
+                Fact<Integer, Integer> fact = current.remove(random.nextInt(current.size()));
+                all.remove(fact);
+                all.add(store.retract(fact, time++));
+            }
+        }
+        assertEquals(all.size(), store.size());
+        for (int query = 0; query < 200; query++) {
+            int validTime = random.nextInt(1100);
+            int transactionTime = random.nextInt(time + 10);
+            List<Fact<Integer, Integer>> expected = all.stream()
+                    .filter(fact -> contains(fact.valid().start(), fact.valid().end(), validTime))
+                    .filter(fact -> contains(fact.recorded().start(), fact.recorded().end(), transactionTime))
+                    .toList();
+            assertEquals(new HashSet<>(expected), new HashSet<>(store.asOf(validTime, transactionTime)));
+            assertEquals(new HashSet<>(expected),
+                    new HashSet<>(store.asOf(IntervalDefault.of(validTime, validTime + 1), transactionTime)));
+            assertEquals(
+                    all.stream().filter(fact -> contains(fact.valid().start(), fact.valid().end(), validTime)).count(),
+                    store.history(validTime).size());
+        }
+    }
+
+    private boolean contains(Integer start, Integer end, int point) {
+        return operations.compareStart(start, point) <= 0 && operations.compareStartToEnd(point, end) < 0;
+    }
+}
@@ -0,0 +1,71 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrossProductTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void matrix() {
+        List<Interval<Integer>> products = List.of(
+                IntervalDefault.of(0, 10),
+                IntervalDefault.of(5, 5),
+                IntervalDefault.of(20, null));
+        List<Interval<Integer>> promotions = List.of(
+                IntervalDefault.of(null, 3),
+                IntervalDefault.of(0, 30),
+                IntervalDefault.of(40, 50));
+
+        PairMatrix overlapping = CrossProduct.overlapping(products, promotions, operations);
+        assertEquals(4, overlapping.cardinality());
+        assertTrue(overlapping.get(0, 0));
+        assertTrue(overlapping.get(0, 1));
+        assertTrue(overlapping.get(2, 1));
+        assertTrue(overlapping.get(2, 2));
+
+        PairMatrix subsets = CrossProduct.subsets(products, promotions, operations);
+        List<String> pairs = new ArrayList<>();
+        subsets.forEach((row, column) -> pairs.add(row + ":" + column));
+        assertEquals(List.of("0:1", "1:0", "1:1", "1:2"), pairs);
+    }
+
+    /**
+     * Enough rows to be split across tasks, compared against evaluating every pair.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(23);
+        List<Interval<Integer>> left = randomIntervals(random, 3000);
+        List<Interval<Integer>> right = randomIntervals(random, 300);
+        PairMatrix overlapping = CrossProduct.overlapping(left, right, operations);
+        PairMatrix subsets = CrossProduct.subsets(left, right, operations);
+        for (int i = 0; i < left.size(); i++) {
+            for (int j = 0; j < right.size(); j++) {
+                boolean overlaps = !operations.isEmpty(operations.intersection(left.get(i), right.get(j)));
+                assertEquals(overlaps, overlapping.get(i, j));
+                assertEquals(operations.subsetOf(left.get(i), right.get(j)), subsets.get(i, j));
+            }
+        }
+    }
+
+    private List<Interval<Integer>> randomIntervals(Random random, int count) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Integer start = random.nextInt(20) == 0 ? null : random.nextInt(1000);
+            Integer end = random.nextInt(20) == 0 ? null : random.nextInt(1000);
+            intervals.add(IntervalDefault.of(start, end));
+        }
+        return intervals;
+    }
+}
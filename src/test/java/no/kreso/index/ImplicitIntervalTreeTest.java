@@ -0,0 +1,76 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImplicitIntervalTreeTest {
+
+    @Test
+    public void queries() {
+        Operations<Integer> operations = OperationsDefault.unbound();
+        ImplicitIntervalTree<Integer, Interval<Integer>> tree = ImplicitIntervalTree.build(List.of(
+                IntervalDefault.of(null, 5),
+                IntervalDefault.of(3, 10),
+                IntervalDefault.of(7, 7),
+                IntervalDefault.of(10, null)), operations);
+        assertEquals(3, tree.size());
+        assertEquals(List.of(IntervalDefault.of(null, 5)), tree.containing(0));
+        assertEquals(List.of(IntervalDefault.of(10, null)), tree.containing(10));
+        assertEquals(List.of(IntervalDefault.of(3, 10)), tree.overlapping(IntervalDefault.of(5, 10)));
+        assertEquals(3, tree.overlapping(IntervalDefault.of(null, null)).size());
+        assertEquals(List.of(), tree.overlapping(IntervalDefault.of(4, 4)));
+        assertTrue(ImplicitIntervalTree.build(List.of(), operations).containing(0).isEmpty());
+    }
+
+    /**
+     * Sizes around powers of two, so that the rightmost path of the tree passes through missing nodes.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(31);
+        for (Operations<Integer> operations : List.of(
+                OperationsDefault.<Integer>unbound(),
+                OperationsDefault.<Integer>leftBound(),
+                OperationsDefault.<Integer>rightBound())) {
+            for (int size : new int[]{1, 2, 15, 16, 17, 255, 256, 1000}) {
+                List<Interval<Integer>> intervals = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    intervals.add(new Indexed(randomBound(random), randomBound(random), i));
+                }
+                ImplicitIntervalTree<Integer, Interval<Integer>> tree = ImplicitIntervalTree.build(intervals, operations);
+                for (int query = 0; query < 100; query++) {
+                    int point = random.nextInt(1100) - 50;
+                    List<Interval<Integer>> containing = intervals.stream()
+                            .filter(interval -> operations.compareStart(interval.start(), point) <= 0
+                                    && operations.compareStartToEnd(point, interval.end()) < 0)
+                            .toList();
+                    assertEquals(new HashSet<>(containing), new HashSet<>(tree.containing(point)));
+
+                    Interval<Integer> range = IntervalDefault.of(randomBound(random), randomBound(random));
+                    List<Interval<Integer>> overlapping = intervals.stream()
+                            .filter(interval -> !operations.isEmpty(operations.intersection(interval, range)))
+                            .toList();
+                    List<Interval<Integer>> actual = tree.overlapping(range);
+                    assertEquals(overlapping.size(), actual.size());
+                    assertEquals(new HashSet<>(overlapping), new HashSet<>(actual));
+                }
+            }
+        }
+    }
+
+    private Integer randomBound(Random random) {
+        return random.nextInt(30) == 0 ? null : random.nextInt(1000);
+    }
+
+    private record Indexed(Integer start, Integer end, int index) implements Interval<Integer> { }
+}
@@ -0,0 +1,86 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalTreeTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void queries() {
+        IntervalTree<Integer, Interval<Integer>> tree = new IntervalTree<>(operations);
+        assertTrue(tree.insert(IntervalDefault.of(null, 5)));
+        assertTrue(tree.insert(IntervalDefault.of(3, 10)));
+        assertTrue(tree.insert(IntervalDefault.of(10, null)));
+        assertFalse(tree.insert(IntervalDefault.of(7, 7)));
+        assertEquals(3, tree.size());
+
+        assertEquals(List.of(IntervalDefault.of(null, 5)), tree.containing(0));
+        assertEquals(List.of(IntervalDefault.of(10, null)), tree.containing(10));
+        assertEquals(2, tree.containing(4).size());
+        assertEquals(2, tree.overlapping(IntervalDefault.of(9, 11)).size());
+        assertEquals(3, tree.overlapping(IntervalDefault.of(null, null)).size());
+        assertTrue(tree.overlapping(IntervalDefault.of(9, 9)).isEmpty());
+
+        assertTrue(tree.delete(IntervalDefault.of(3, 10)));
+        assertFalse(tree.delete(IntervalDefault.of(3, 10)));
+        assertTrue(tree.containing(7).isEmpty());
+    }
+
+    @Test
+    public void randomized() {
+        Random random = new Random(7);
+        IntervalTree<Integer, Interval<Integer>> tree = new IntervalTree<>(operations);
+        List<Interval<Integer>> expected = new ArrayList<>();
+        for (int round = 0; round < 2000; round++) {
+            Interval<Integer> interval = randomInterval(random);
+            if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                interval = expected.get(random.nextInt(expected.size()));
+                assertTrue(tree.delete(interval));
+                expected.remove(interval);
+            } else if (tree.insert(interval)) {
+                expected.add(interval);
+            }
+            assertEquals(expected.size(), tree.size());
+
+            int point = random.nextInt(100);
+            assertSameElements(
+                    expected.stream().filter(i -> contains(i, point)).toList(),
+                    tree.containing(point));
+
+            Interval<Integer> range = randomInterval(random);
+            assertSameElements(
+                    expected.stream().filter(i -> !operations.isEmpty(operations.intersection(i, range))).toList(),
+                    tree.overlapping(range));
+        }
+    }
+
+    private boolean contains(Interval<Integer> interval, int point) {
+        return operations.compareStart(interval.start(), point) <= 0
+                && operations.compareStartToEnd(point, interval.end()) < 0;
+    }
+
+    private Interval<Integer> randomInterval(Random random) {
+        Integer start = random.nextInt(20) == 0 ? null : random.nextInt(100);
+        Integer end = random.nextInt(20) == 0 ? null : random.nextInt(100);
+        return IntervalDefault.of(start, end);
+    }
+
+    private void assertSameElements(List<Interval<Integer>> expected, List<Interval<Integer>> actual) {
+        Comparator<Interval<Integer>> order = Comparator
+                .<Interval<Integer>, Integer>comparing(Interval::start, operations::compareStart)
+                .thenComparing(Interval::end, operations::compareEnd);
+        assertEquals(expected.stream().sorted(order).toList(), actual.stream().sorted(order).toList());
+    }
+}
@@ -0,0 +1,90 @@
+package no.kreso.index;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.LongOperations;
+import no.kreso.operations.LongOperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongImplicitIntervalTreeTest {
+
+    @Test
+    public void queries() {
+        LongImplicitIntervalTree tree = LongImplicitIntervalTree.build(List.of(
+                IntervalDefault.of(null, 5L),
+                IntervalDefault.of(3L, 10L),
+                IntervalDefault.of(7L, 7L),
+                IntervalDefault.of(10L, null)), LongOperationsDefault.unbound());
+        assertEquals(3, tree.size());
+        assertEquals(List.of(0), containing(tree, 0));
+        assertEquals(List.of(3), containing(tree, 10));
+        assertEquals(List.of(3), containing(tree, LongOperations.POSITIVE_INFINITY - 1));
+        assertEquals(List.of(0, 1), containing(tree, 4));
+        assertEquals(1, tree.countOverlapping(5, 10));
+        assertEquals(3, tree.countOverlapping(LongOperations.NEGATIVE_INFINITY, LongOperations.POSITIVE_INFINITY));
+        assertEquals(0, tree.countOverlapping(4, 4));
+        assertTrue(LongImplicitIntervalTree.build(new long[0], new long[0]).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> LongImplicitIntervalTree.build(new long[1], new long[0]));
+    }
+
+    /**
+     * Sizes around powers of two, so that the rightmost path of the tree passes through missing nodes. Results must
+     * come in ascending order of lower bound.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(37);
+        for (int size : new int[]{1, 2, 15, 16, 17, 255, 256, 1000}) {
+            long[] starts = new long[size];
+            long[] ends = new long[size];
+            for (int i = 0; i < size; i++) {
+                starts[i] = random.nextInt(30) == 0 ? LongOperations.NEGATIVE_INFINITY : random.nextInt(1000);
+                ends[i] = random.nextInt(30) == 0 ? LongOperations.POSITIVE_INFINITY : random.nextInt(1000);
+            }
+            LongImplicitIntervalTree tree = LongImplicitIntervalTree.build(starts, ends);
+            for (int query = 0; query < 100; query++) {
+                long from = random.nextInt(1100) - 50;
+                long to = from + 1 + random.nextInt(100);
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    if (starts[i] < ends[i] && starts[i] < to && from < ends[i]) {
+                        expected.add(i);
+                    }
+                }
+                List<Integer> actual = new ArrayList<>();
+                long[] previous = {LongOperations.NEGATIVE_INFINITY};
+                tree.forEachOverlapping(from, to, (index, start, end) -> {
+                    assertEquals(starts[index], start);
+                    assertEquals(ends[index], end);
+                    assertTrue(start >= previous[0]);
+                    previous[0] = start;
+                    actual.add(index);
+                });
+                actual.sort(null);
+                assertEquals(expected, actual);
+
+                List<Integer> containing = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    if (starts[i] <= from && from < ends[i]) {
+                        containing.add(i);
+                    }
+                }
+                List<Integer> found = containing(tree, from);
+                found.sort(null);
+                assertEquals(containing, found);
+            }
+        }
+    }
+
+    private static List<Integer> containing(LongImplicitIntervalTree tree, long point) {
+        List<Integer> result = new ArrayList<>();
+        tree.forEachContaining(point, (index, start, end) -> result.add(index));
+        return result;
+    }
+}
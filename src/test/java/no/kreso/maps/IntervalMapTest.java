@@ -0,0 +1,97 @@
+package no.kreso.maps;
+
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalMapTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void splitting() {
+        IntervalMap<Integer, String> map = new IntervalMap<>(operations);
+        map.put(IntervalDefault.of(null, null), "base");
+        map.put(IntervalDefault.of(10, 20), "peak");
+        map.put(IntervalDefault.of(15, 25), "holiday");
+        assertEquals(List.of(
+                new IntervalMap.Entry<>(IntervalDefault.of(null, 10), "base"),
+                new IntervalMap.Entry<>(IntervalDefault.of(10, 15), "peak"),
+                new IntervalMap.Entry<>(IntervalDefault.of(15, 25), "holiday"),
+                new IntervalMap.Entry<>(IntervalDefault.of(25, null), "base")), map.entries());
+        assertEquals("base", map.get(-1000));
+        assertEquals("peak", map.get(14));
+        assertEquals("holiday", map.get(15));
+        assertEquals("base", map.get(25));
+
+        map.remove(IntervalDefault.of(0, 12));
+        assertNull(map.get(5));
+        assertEquals("peak", map.get(12));
+
+        IntervalMap<Integer, String> subMap = map.subMap(IntervalDefault.of(11, 30));
+        assertEquals(List.of(
+                new IntervalMap.Entry<>(IntervalDefault.of(12, 15), "peak"),
+                new IntervalMap.Entry<>(IntervalDefault.of(15, 25), "holiday"),
+                new IntervalMap.Entry<>(IntervalDefault.of(25, 30), "base")), subMap.entries());
+    }
+
+    @Test
+    public void randomized() {
+        Random random = new Random(9);
+        IntervalMap<Integer, Integer> map = new IntervalMap<>(operations);
+        Integer[] expected = new Integer[100];
+        for (int round = 0; round < 1000; round++) {
+            int start = random.nextInt(100);
+            int end = random.nextInt(101);
+            Integer value = random.nextInt(4) == 0 ? null : round;
+            if (value == null) {
+                map.remove(IntervalDefault.of(start, end));
+            } else {
+                map.put(IntervalDefault.of(start, end), value);
+            }
+            for (int point = start; point < end; point++) {
+                expected[point] = value;
+            }
+            for (int point = 0; point < 100; point++) {
+                assertEquals(expected[point], map.get(point));
+            }
+        }
+    }
+
+    /**
+     * Readers must always see either the old or the new value of a range, never a missing one.
+     */
+    @Test
+    public void concurrentReads() throws InterruptedException {
+        IntervalMap<Integer, Integer> map = new IntervalMap<>(operations);
+        map.put(IntervalDefault.of(0, 1000), 0);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Integer> missing = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            Random random = new Random();
+            while (!done.get()) {
+                int point = random.nextInt(1000);
+                if (map.get(point) == null) {
+                    missing.set(point);
+                }
+            }
+        });
+        reader.start();
+        Random random = new Random(1);
+        for (int i = 1; i < 10_000; i++) {
+            int start = random.nextInt(1000);
+            map.put(IntervalDefault.of(start, start + random.nextInt(50)), i);
+        }
+        done.set(true);
+        reader.join();
+        assertNull(missing.get());
+    }
+}
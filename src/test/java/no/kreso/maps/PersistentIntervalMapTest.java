@@ -0,0 +1,87 @@
+package no.kreso.maps;
+
+import no.kreso.interval.IntervalDefault;
+import no.kreso.maps.IntervalMap.Entry;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentIntervalMapTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void versions() {
+        PersistentIntervalMap<Integer, String> empty = PersistentIntervalMap.empty(operations);
+        PersistentIntervalMap<Integer, String> first = empty.put(IntervalDefault.of(null, null), "base");
+        PersistentIntervalMap<Integer, String> second = first.put(IntervalDefault.of(10, 20), "sale");
+        PersistentIntervalMap<Integer, String> third = second.remove(IntervalDefault.of(15, 30));
+
+        assertTrue(empty.isEmpty());
+        assertEquals(List.of(new Entry<>(IntervalDefault.of(null, null), "base")), first.entries());
+        assertEquals(List.of(
+                new Entry<>(IntervalDefault.of(null, 10), "base"),
+                new Entry<>(IntervalDefault.of(10, 20), "sale"),
+                new Entry<>(IntervalDefault.of(20, null), "base")), second.entries());
+        assertEquals(List.of(
+                new Entry<>(IntervalDefault.of(null, 10), "base"),
+                new Entry<>(IntervalDefault.of(10, 15), "sale"),
+                new Entry<>(IntervalDefault.of(30, null), "base")), third.entries());
+        assertEquals("sale", second.get(17));
+        assertNull(third.get(17));
+        assertEquals(new Entry<>(IntervalDefault.of(30, null), "base"), third.entry(100));
+        assertSame(third, third.remove(IntervalDefault.of(5, 5)));
+
+        PersistentIntervalMap<Integer, String> merged = second.putCoalescing(IntervalDefault.of(5, 25), "base");
+        assertEquals(List.of(new Entry<>(IntervalDefault.of(null, null), "base")), merged.entries());
+    }
+
+    /**
+     * Applies random changes, keeping every version, and compares every version point by point against a model.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(37);
+        int points = 200;
+        List<PersistentIntervalMap<Integer, Integer>> versions = new ArrayList<>();
+        List<Integer[]> models = new ArrayList<>();
+        PersistentIntervalMap<Integer, Integer> map = PersistentIntervalMap.empty(operations);
+        Integer[] model = new Integer[points];
+        for (int change = 0; change < 500; change++) {
+            int start = random.nextInt(points);
+            int end = Math.min(points, start + random.nextInt(40));
+            Integer value = random.nextInt(3);
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                map = map.put(IntervalDefault.of(start, end), value);
+            } else if (kind == 1) {
+                map = map.putCoalescing(IntervalDefault.of(start, end), value);
+            } else {
+                map = map.remove(IntervalDefault.of(start, end));
+                value = null;
+            }
+            model = model.clone();
+            for (int point = start; point < end; point++) {
+                model[point] = value;
+            }
+            versions.add(map);
+            models.add(model);
+        }
+        for (int version = 0; version < versions.size(); version++) {
+            for (int point = 0; point < points; point++) {
+                assertEquals(models.get(version)[point], versions.get(version).get(point));
+            }
+            List<Entry<Integer, Integer>> entries = versions.get(version).entries();
+            assertEquals(entries.size(), versions.get(version).size());
+            for (int i = 1; i < entries.size(); i++) {
+                assertTrue(entries.get(i - 1).range().end() <= entries.get(i).range().start());
+            }
+        }
+    }
+}
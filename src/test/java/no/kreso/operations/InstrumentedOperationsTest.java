@@ -0,0 +1,81 @@
+package no.kreso.operations;
+
+import no.kreso.operations.InstrumentedOperations.Method;
+import no.kreso.operations.InstrumentedOperations.Snapshot;
+import no.kreso.operations.OperationsDefault.NullInterpretation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedOperationsTest {
+
+    @Test
+    public void counting() {
+        InstrumentedOperations<Integer> operations =
+                new InstrumentedOperations<>(OperationsDefault.<Integer>unbound(), true, 0, false);
+        operations.intersection(operations.validate(5, 10), operations.validate(11, 20));
+        operations.union(operations.validate(5, 10), operations.validate(10, 20));
+        operations.isEmpty(operations.validate(null, null));
+
+        Snapshot snapshot = operations.snapshot();
+        assertEquals(5, snapshot.calls(Method.VALIDATE));
+        assertEquals(1, snapshot.calls(Method.INTERSECTION));
+        assertEquals(1, snapshot.calls(Method.UNION));
+        assertEquals(1, snapshot.calls(Method.IS_EMPTY));
+        assertEquals(0, snapshot.calls(Method.SUBSET_OF));
+        assertEquals(1, snapshot.emptyResults());
+        assertEquals(0, snapshot.comparisons());
+        assertEquals(0, snapshot.latencies(Method.VALIDATE).length);
+    }
+
+    @Test
+    public void callsOnly() {
+        InstrumentedOperations<Integer> operations = new InstrumentedOperations<>(OperationsDefault.<Integer>unbound());
+        operations.intersection(operations.validate(5, 10), operations.validate(11, 20));
+
+        Snapshot snapshot = operations.snapshot();
+        assertEquals(1, snapshot.calls(Method.INTERSECTION));
+        assertEquals(0, snapshot.emptyResults());
+    }
+
+    @Test
+    public void comparisonsAndSampling() {
+        InstrumentedOperations<Integer> operations = InstrumentedOperations.<Integer>countingComparisons(
+                comparator -> new OperationsDefault<>(
+                        comparator,
+                        NullInterpretation.NEGATIVE_INFINITY,
+                        NullInterpretation.POSITIVE_INFINITY),
+                Comparator.naturalOrder(),
+                false,
+                1,
+                true);
+        for (int i = 0; i < 100; i++) {
+            operations.subsetOf(operations.validate(5, 10), operations.validate(0, 20));
+        }
+
+        Snapshot snapshot = operations.snapshot();
+        assertEquals(100, snapshot.calls(Method.SUBSET_OF));
+        // Each subsetOf checks emptiness of both operands, then compares both bounds
+        assertEquals(100 * (2 + 4), snapshot.comparisons());
+        assertEquals(100, Arrays.stream(snapshot.latencies(Method.SUBSET_OF)).sum());
+        assertEquals(200, Arrays.stream(snapshot.latencies(Method.VALIDATE)).sum());
+        assertEquals(0, snapshot.emptyResults());
+    }
+
+    /**
+     * Counting empty results and sampling are independent switches.
+     */
+    @Test
+    public void samplingWithoutEmptyResults() {
+        InstrumentedOperations<Integer> operations =
+                new InstrumentedOperations<>(OperationsDefault.<Integer>unbound(), false, 1, false);
+        operations.intersection(operations.validate(5, 10), operations.validate(11, 20));
+
+        Snapshot snapshot = operations.snapshot();
+        assertEquals(0, snapshot.emptyResults());
+        assertEquals(1, Arrays.stream(snapshot.latencies(Method.INTERSECTION)).sum());
+    }
+}
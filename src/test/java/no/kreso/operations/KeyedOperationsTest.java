@@ -0,0 +1,94 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedOperationsTest {
+
+    private static final List<Integer> values = Arrays.asList(null, 5, 10, 11, 20);
+
+    @Test
+    public void unbound() {
+        runTests(OperationsDefault.unbound(), KeyedOperations.unbound(Integer::longValue));
+    }
+
+    @Test
+    public void leftBound() {
+        runTests(OperationsDefault.leftBound(), KeyedOperations.leftBound(Integer::longValue));
+    }
+
+    @Test
+    public void rightBound() {
+        runTests(OperationsDefault.rightBound(), KeyedOperations.rightBound(Integer::longValue));
+    }
+
+    @Test
+    public void keysAreCached() {
+        AtomicInteger extractions = new AtomicInteger();
+        ToLongFunction<Integer> key = value -> {
+            extractions.incrementAndGet();
+            return value;
+        };
+        Operations<Integer> operations = KeyedOperations.unbound(key);
+        Interval<Integer> left = operations.validate(5, 11);
+        Interval<Integer> right = operations.validate(10, 20);
+        extractions.set(0);
+
+        Interval<Integer> intersection = operations.intersection(left, right);
+        assertTrue(operations.subsetOf(intersection, operations.union(left, right)));
+        assertFalse(operations.isEmpty(intersection));
+        assertEquals(0, extractions.get());
+
+        operations.isEmpty(IntervalDefault.of(5, 11));
+        assertEquals(2, extractions.get());
+    }
+
+    /**
+     * Keyed intervals are equal only to themselves, which keeps equality symmetric with IntervalDefault.
+     */
+    @Test
+    public void equality() {
+        Operations<Integer> operations = KeyedOperations.unbound(Integer::longValue);
+        Interval<Integer> keyed = operations.validate(5, 11);
+        Interval<Integer> plain = IntervalDefault.of(5, 11);
+        assertEquals(keyed, keyed);
+        assertNotEquals(keyed, operations.validate(5, 11));
+        assertEquals(keyed.equals(plain), plain.equals(keyed));
+    }
+
+    private void runTests(Operations<Integer> expected, Operations<Integer> actual) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        for (Integer start : values) {
+            for (Integer end : values) {
+                assertBounds(expected.validate(start, end), actual.validate(start, end));
+                assertEquals(expected.compareStart(start, end), actual.compareStart(start, end));
+                assertEquals(expected.compareEnd(start, end), actual.compareEnd(start, end));
+                assertEquals(expected.compareStartToEnd(start, end), actual.compareStartToEnd(start, end));
+                intervals.add(expected.validate(start, end));
+                intervals.add(actual.validate(start, end));
+            }
+        }
+        for (Interval<Integer> left : intervals) {
+            for (Interval<Integer> right : intervals) {
+                assertEquals(expected.isEmpty(left), actual.isEmpty(left));
+                assertEquals(expected.subsetOf(left, right), actual.subsetOf(left, right));
+                assertBounds(expected.intersection(left, right), actual.intersection(left, right));
+                assertBounds(expected.union(left, right), actual.union(left, right));
+            }
+        }
+    }
+
+    private static void assertBounds(Interval<Integer> expected, Interval<Integer> actual) {
+        assertEquals(expected.start(), actual.start());
+        assertEquals(expected.end(), actual.end());
+    }
+}
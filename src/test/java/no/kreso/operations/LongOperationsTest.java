@@ -0,0 +1,76 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongOperationsTest {
+
+    private static final List<Long> values = Arrays.asList(null, 5L, 10L, 11L, 20L);
+
+    @Test
+    public void unbound() {
+        runTests(OperationsDefault.unbound(), LongOperationsDefault.unbound());
+    }
+
+    @Test
+    public void leftBound() {
+        runTests(OperationsDefault.leftBound(), LongOperationsDefault.leftBound());
+    }
+
+    @Test
+    public void rightBound() {
+        runTests(OperationsDefault.rightBound(), LongOperationsDefault.rightBound());
+    }
+
+    @Test
+    public void sentinels() {
+        LongOperations unbound = LongOperationsDefault.unbound();
+        assertEquals(LongOperations.NEGATIVE_INFINITY, unbound.encodeStart(null));
+        assertEquals(LongOperations.POSITIVE_INFINITY, unbound.encodeEnd(null));
+        assertNull(unbound.decodeStart(LongOperations.NEGATIVE_INFINITY));
+        assertNull(unbound.decodeEnd(LongOperations.POSITIVE_INFINITY));
+        assertEquals(5L, unbound.decodeStart(5L));
+    }
+
+    /**
+     * Every combination of bounds is fed to both implementations, and the results must be identical once the long
+     * results are decoded back into nullable bounds.
+     */
+    private void runTests(Operations<Long> expected, LongOperations actual) {
+        List<Interval<Long>> intervals = new ArrayList<>();
+        for (Long start : values) {
+            for (Long end : values) {
+                Interval<Long> validated = expected.validate(start, end);
+                intervals.add(validated);
+                long encodedStart = actual.encodeStart(start);
+                long encodedEnd = actual.encodeEnd(end);
+                assertEquals(validated.end(), actual.decodeEnd(actual.validateEnd(encodedStart, encodedEnd)));
+                assertEquals(expected.isEmpty(validated), actual.isEmpty(encodedStart, encodedEnd));
+            }
+        }
+        for (Interval<Long> left : intervals) {
+            for (Interval<Long> right : intervals) {
+                long ls = actual.encodeStart(left.start());
+                long le = actual.encodeEnd(left.end());
+                long rs = actual.encodeStart(right.start());
+                long re = actual.encodeEnd(right.end());
+
+                assertEquals(expected.subsetOf(left, right), actual.subsetOf(ls, le, rs, re));
+
+                Interval<Long> intersection = expected.intersection(left, right);
+                assertEquals(intersection.start(), actual.decodeStart(actual.intersectionStart(ls, le, rs, re)));
+                assertEquals(intersection.end(), actual.decodeEnd(actual.intersectionEnd(ls, le, rs, re)));
+
+                Interval<Long> union = expected.union(left, right);
+                assertEquals(union.start(), actual.decodeStart(actual.unionStart(ls, le, rs, re)));
+                assertEquals(union.end(), actual.decodeEnd(actual.unionEnd(ls, le, rs, re)));
+            }
+        }
+    }
+}
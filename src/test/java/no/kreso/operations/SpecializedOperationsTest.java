@@ -0,0 +1,75 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import no.kreso.operations.OperationsDefault.NullInterpretation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecializedOperationsTest {
+
+    private static final List<Integer> values = Arrays.asList(null, 5, 10, 11, 20);
+
+    @Test
+    public void unbound() {
+        runTests(
+                new OperationsDefault<>(
+                        Comparator.<Integer>naturalOrder(),
+                        NullInterpretation.NEGATIVE_INFINITY,
+                        NullInterpretation.POSITIVE_INFINITY),
+                OperationsDefault.unbound(),
+                values);
+    }
+
+    @Test
+    public void leftBound() {
+        runTests(
+                new OperationsDefault<>(
+                        Comparator.<Integer>naturalOrder(),
+                        NullInterpretation.POSITIVE_INFINITY,
+                        NullInterpretation.POSITIVE_INFINITY),
+                OperationsDefault.leftBound(),
+                values);
+    }
+
+    @Test
+    public void rightBound() {
+        runTests(
+                new OperationsDefault<>(
+                        Comparator.<Integer>naturalOrder(),
+                        NullInterpretation.NEGATIVE_INFINITY,
+                        NullInterpretation.NEGATIVE_INFINITY),
+                OperationsDefault.rightBound(),
+                values);
+    }
+
+    @Test
+    public void nonNull() {
+        runTests(OperationsDefault.unbound(), OperationsDefault.nonNull(), values.subList(1, values.size()));
+    }
+
+    private void runTests(Operations<Integer> expected, Operations<Integer> actual, List<Integer> values) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        for (Integer start : values) {
+            for (Integer end : values) {
+                assertEquals(expected.validate(start, end), actual.validate(start, end));
+                assertEquals(expected.compareStart(start, end), actual.compareStart(start, end));
+                assertEquals(expected.compareEnd(start, end), actual.compareEnd(start, end));
+                assertEquals(expected.compareStartToEnd(start, end), actual.compareStartToEnd(start, end));
+                intervals.add(expected.validate(start, end));
+            }
+        }
+        for (Interval<Integer> left : intervals) {
+            for (Interval<Integer> right : intervals) {
+                assertEquals(expected.subsetOf(left, right), actual.subsetOf(left, right));
+                assertEquals(expected.intersection(left, right), actual.intersection(left, right));
+                assertEquals(expected.union(left, right), actual.union(left, right));
+            }
+        }
+    }
+}
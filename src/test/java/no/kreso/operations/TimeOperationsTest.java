@@ -0,0 +1,85 @@
+package no.kreso.operations;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOperationsTest {
+
+    @Test
+    public void localDate() {
+        assertParity(TimeOperations.localDate(), random -> LocalDate.ofEpochDay(random.nextInt(-1000, 1000)));
+    }
+
+    @Test
+    public void offsetDateTime() {
+        Operations<OffsetDateTime> operations = TimeOperations.offsetDateTime();
+        OffsetDateTime utc = OffsetDateTime.of(2025, 2, 5, 12, 0, 0, 0, ZoneOffset.UTC);
+        OffsetDateTime oslo = utc.withOffsetSameInstant(ZoneOffset.ofHours(1));
+        assertEquals(0, operations.compareStart(utc, oslo));
+        assertTrue(operations.isEmpty(IntervalDefault.of(oslo, utc)));
+        assertTrue(operations.compareStartToEnd(utc.minusNanos(1), oslo) < 0);
+    }
+
+    /**
+     * Values far outside the range of nanoseconds since the epoch, such as the common sentinel 9999-12-31.
+     */
+    @Test
+    public void fullRange() {
+        Operations<Instant> instants = TimeOperations.instant();
+        assertTrue(instants.compareStart(Instant.MAX, Instant.EPOCH) > 0);
+        assertFalse(instants.isEmpty(IntervalDefault.of(Instant.MIN, Instant.MAX)));
+        assertNull(instants.validate(null, null).start());
+
+        Operations<LocalDateTime> dateTimes = TimeOperations.localDateTime();
+        LocalDateTime sentinel = LocalDateTime.of(9999, 12, 31, 0, 0);
+        assertFalse(dateTimes.isEmpty(IntervalDefault.of(LocalDateTime.of(2025, 2, 5, 12, 0), sentinel)));
+        assertTrue(dateTimes.compareStartToEnd(LocalDateTime.MAX, null) < 0);
+        assertTrue(dateTimes.compareStart(LocalDateTime.MIN, sentinel) < 0);
+
+        Operations<OffsetDateTime> offsetDateTimes = TimeOperations.offsetDateTime();
+        assertTrue(offsetDateTimes.compareEnd(OffsetDateTime.MIN, OffsetDateTime.MAX) < 0);
+        assertTrue(offsetDateTimes.compareEnd(OffsetDateTime.MAX, null) < 0);
+
+        Operations<LocalDate> dates = TimeOperations.localDate();
+        assertTrue(dates.compareStartToEnd(LocalDate.MIN, LocalDate.MAX) < 0);
+        assertTrue(dates.compareStartToEnd(null, LocalDate.MIN) < 0);
+    }
+
+    /**
+     * Compares random operations against OperationsDefault, which compares the values by their natural order.
+     */
+    private static <T extends Comparable<? super T>> void assertParity(Operations<T> operations,
+                                                                       Function<Random, T> values) {
+        Operations<T> reference = OperationsDefault.unbound();
+        Random random = new Random(53);
+        for (int i = 0; i < 2000; i++) {
+            Interval<T> left = reference.validate(
+                    random.nextInt(10) == 0 ? null : values.apply(random),
+                    random.nextInt(10) == 0 ? null : values.apply(random));
+            Interval<T> right = reference.validate(
+                    random.nextInt(10) == 0 ? null : values.apply(random),
+                    random.nextInt(10) == 0 ? null : values.apply(random));
+
+            assertEquals(reference.isEmpty(left), operations.isEmpty(left));
+            assertEquals(reference.subsetOf(left, right), operations.subsetOf(left, right));
+            assertBounds(reference.intersection(left, right), operations.intersection(left, right));
+            assertBounds(reference.union(left, right), operations.union(left, right));
+        }
+    }
+
+    private static <T> void assertBounds(Interval<T> expected, Interval<T> actual) {
+        assertEquals(expected.start(), actual.start());
+        assertEquals(expected.end(), actual.end());
+    }
+}
@@ -0,0 +1,163 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitmapIntervalSetTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void conversion() {
+        BitmapIntervalSet set = BitmapIntervalSet.of(operations, List.of(
+                IntervalDefault.of(10, 20),
+                IntervalDefault.of(65530, 65540),
+                IntervalDefault.of(20, 25),
+                IntervalDefault.of(30, 30)));
+        assertEquals(List.of(IntervalDefault.of(10, 25), IntervalDefault.of(65530, 65540)), set.intervals());
+        assertEquals(25, set.cardinality());
+        assertEquals(17, set.rank(65531));
+        assertTrue(set.contains(65539));
+        assertFalse(set.contains(65540));
+
+        BitmapIntervalSet unbounded = BitmapIntervalSet.of(operations, IntervalDefault.of(null, null));
+        assertEquals(List.of(IntervalDefault.of(null, null)), unbounded.intervals());
+        assertEquals(1L << 32, unbounded.cardinality());
+        assertEquals(1, unbounded.rank(Integer.MIN_VALUE));
+        assertEquals(
+                List.of(IntervalDefault.of(null, 0), IntervalDefault.of(5, null)),
+                unbounded.difference(BitmapIntervalSet.of(operations, IntervalDefault.of(0, 5))).intervals());
+        assertTrue(BitmapIntervalSet.of(operations, IntervalDefault.of(5, 0)).isEmpty());
+    }
+
+    /**
+     * Null bounds are read and written as the Operations interpret them, and only sets of the same interpretation can
+     * be combined.
+     */
+    @Test
+    public void nullInterpretation() {
+        Operations<Integer> leftBound = OperationsDefault.leftBound();
+        BitmapIntervalSet left = BitmapIntervalSet.of(leftBound, List.of(
+                IntervalDefault.of(null, 5),
+                IntervalDefault.of(10, null),
+                IntervalDefault.of(Integer.MIN_VALUE, -5)));
+        assertEquals(
+                List.of(IntervalDefault.of(Integer.MIN_VALUE, -5), IntervalDefault.of(10, null)),
+                left.intervals());
+        assertEquals(IntervalSet.of(leftBound, List.of(
+                IntervalDefault.of(null, 5),
+                IntervalDefault.of(10, null),
+                IntervalDefault.of(Integer.MIN_VALUE, -5))).intervals(), left.intervals());
+
+        Operations<Integer> rightBound = OperationsDefault.rightBound();
+        BitmapIntervalSet right = BitmapIntervalSet.of(rightBound, List.of(
+                IntervalDefault.of(null, 5),
+                IntervalDefault.of(10, null),
+                IntervalDefault.of(20, Integer.MAX_VALUE)));
+        assertEquals(
+                List.of(IntervalDefault.of(null, 5), IntervalDefault.of(20, Integer.MAX_VALUE)),
+                right.intervals());
+        assertFalse(right.contains(Integer.MAX_VALUE));
+
+        BitmapIntervalSet unbound = BitmapIntervalSet.of(operations, IntervalDefault.of(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> left.union(unbound));
+        assertThrows(IllegalArgumentException.class, () -> right.intersection(unbound));
+        assertNotEquals(BitmapIntervalSet.of(leftBound, IntervalDefault.of(0, 5)), unbound);
+        assertEquals(
+                List.of(IntervalDefault.of(Integer.MIN_VALUE, 0)),
+                BitmapIntervalSet.of(OperationsDefault.nonNull(), IntervalDefault.of(Integer.MIN_VALUE, 0)).intervals());
+        Operations<Integer> descending = new OperationsDefault<>(
+                Comparator.<Integer>reverseOrder(),
+                OperationsDefault.NullInterpretation.NEGATIVE_INFINITY,
+                OperationsDefault.NullInterpretation.POSITIVE_INFINITY);
+        assertThrows(IllegalArgumentException.class, () -> BitmapIntervalSet.of(descending, IntervalDefault.of(5, 0)));
+    }
+
+    /**
+     * Singletons at every other value make a chunk too fragmented for runs, so that it is held by a bitmap.
+     */
+    @Test
+    public void fragmented() {
+        List<Interval<Integer>> odd = new ArrayList<>();
+        List<Interval<Integer>> even = new ArrayList<>();
+        for (int i = 0; i < 10_000; i += 2) {
+            even.add(IntervalDefault.of(i, i + 1));
+            odd.add(IntervalDefault.of(i + 1, i + 2));
+        }
+        BitmapIntervalSet evenSet = BitmapIntervalSet.of(operations, even);
+        BitmapIntervalSet oddSet = BitmapIntervalSet.of(operations, odd);
+        assertEquals(5000, evenSet.cardinality());
+        assertEquals(2501, evenSet.rank(5000));
+        assertEquals(BitmapIntervalSet.of(operations, IntervalDefault.of(0, 10_000)), evenSet.union(oddSet));
+        assertTrue(evenSet.intersection(oddSet).isEmpty());
+        assertEquals(evenSet, evenSet.difference(oddSet));
+        assertEquals(
+                List.of(IntervalDefault.of(2, 3), IntervalDefault.of(4, 5)),
+                evenSet.intersection(BitmapIntervalSet.of(operations, IntervalDefault.of(1, 6))).intervals());
+    }
+
+    /**
+     * Null bounds in every interpretation, against the IntervalSet of the same Operations.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(42);
+        List<Operations<Integer>> interpretations = List.of(
+                operations,
+                OperationsDefault.leftBound(),
+                OperationsDefault.rightBound());
+        for (int round = 0; round < 600; round++) {
+            Operations<Integer> operations = interpretations.get(round % interpretations.size());
+            List<Interval<Integer>> left = randomIntervals(random);
+            List<Interval<Integer>> right = randomIntervals(random);
+            IntervalSet<Integer> expectedLeft = IntervalSet.of(operations, left);
+            IntervalSet<Integer> expectedRight = IntervalSet.of(operations, right);
+            BitmapIntervalSet actualLeft = BitmapIntervalSet.of(operations, left);
+            BitmapIntervalSet actualRight = BitmapIntervalSet.of(operations, right);
+
+            assertEquals(expectedLeft.intervals(), actualLeft.intervals());
+            assertEquals(expectedLeft.union(expectedRight).intervals(), actualLeft.union(actualRight).intervals());
+            assertEquals(
+                    expectedLeft.intersection(expectedRight).intervals(),
+                    actualLeft.intersection(actualRight).intervals());
+            assertEquals(
+                    expectedLeft.difference(expectedRight).intervals(),
+                    actualLeft.difference(actualRight).intervals());
+
+            long rank = 0;
+            for (int point = 65536 - 40; point < 65536 + 40; point++) {
+                assertEquals(expectedLeft.contains(point), actualLeft.contains(point));
+                if (expectedLeft.contains(point)) {
+                    rank++;
+                }
+                assertEquals(rank, actualLeft.rank(point) - actualLeft.rank(65536 - 41));
+            }
+        }
+    }
+
+    /**
+     * Intervals around the boundary between the first two chunks of non-negative values.
+     */
+    private List<Interval<Integer>> randomIntervals(Random random) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        int count = random.nextInt(6);
+        for (int i = 0; i < count; i++) {
+            int start = 65536 - 30 + random.nextInt(60);
+            int end = start + random.nextInt(20);
+            intervals.add(IntervalDefault.of(
+                    random.nextInt(10) == 0 ? null : start,
+                    random.nextInt(10) == 0 ? null : end));
+        }
+        return intervals;
+    }
+}
@@ -0,0 +1,48 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingTest {
+
+    private final Operations<Long> operations = OperationsDefault.unbound();
+
+    @Test
+    public void small() {
+        List<Interval<Long>> intervals = List.of(
+                IntervalDefault.of(5L, 10L),
+                IntervalDefault.of(1L, 3L),
+                IntervalDefault.of(3L, 4L),
+                IntervalDefault.of(8L, 12L));
+        assertEquals(
+                List.of(IntervalDefault.of(1L, 4L), IntervalDefault.of(5L, 12L)),
+                Coalescing.coalesce(intervals, operations).intervals());
+    }
+
+    /**
+     * Large enough to be split in many slices, with intervals long enough that coalesced intervals span several
+     * slices.
+     */
+    @Test
+    public void matchesSequential() {
+        Random random = new Random(11);
+        for (int length : new int[] {10, 1_000, 50_000}) {
+            List<Interval<Long>> intervals = new ArrayList<>();
+            for (int i = 0; i < 200_000; i++) {
+                long start = random.nextInt(10_000_000);
+                intervals.add(IntervalDefault.of(start, start + random.nextInt(length)));
+            }
+            intervals.add(IntervalDefault.of(null, -5L));
+            assertEquals(IntervalSet.of(operations, intervals), Coalescing.coalesce(intervals, operations));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DepthProfileTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void profile() {
+        DepthProfile<Integer> profile = DepthProfile.of(List.of(
+                IntervalDefault.of(0, 5),
+                IntervalDefault.of(5, 10),
+                IntervalDefault.of(3, 7),
+                IntervalDefault.of(4, 4),
+                IntervalDefault.of(12, null)), operations);
+        assertEquals(List.of(
+                new DepthProfile.Step<>(IntervalDefault.of(0, 3), 1),
+                new DepthProfile.Step<>(IntervalDefault.of(3, 7), 2),
+                new DepthProfile.Step<>(IntervalDefault.of(7, 10), 1),
+                new DepthProfile.Step<>(IntervalDefault.of(10, 12), 0),
+                new DepthProfile.Step<>(IntervalDefault.of(12, null), 1)), profile.steps());
+        assertEquals(2, profile.maxDepth());
+        assertEquals(List.of(IntervalDefault.of(3, 7)), profile.maxDepthRanges());
+        assertArrayEquals(new long[]{2, Long.MAX_VALUE, 4}, profile.durations((start, end) -> end - start));
+
+        LongDepthProfile longProfile = LongDepthProfile.of(new long[]{0, 5, 3, 4}, new long[]{5, 10, 7, 4});
+        assertEquals(2, longProfile.maxDepth());
+        assertEquals(3, longProfile.maxDepthAt());
+        assertArrayEquals(new long[]{0, 6, 4}, longProfile.durations());
+
+        assertEquals(List.of(), DepthProfile.of(List.of(), operations).steps());
+        assertEquals(0, LongDepthProfile.of(new long[0], new long[0]).steps());
+    }
+
+    /**
+     * Compares the depth of every step against counting the intervals containing its points.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(29);
+        for (int round = 0; round < 300; round++) {
+            List<Interval<Integer>> intervals = new ArrayList<>();
+            int count = random.nextInt(30);
+            long[] starts = new long[count];
+            long[] ends = new long[count];
+            for (int i = 0; i < count; i++) {
+                int start = random.nextInt(50);
+                int end = start + random.nextInt(10) - 2;
+                intervals.add(IntervalDefault.of(start, end));
+                starts[i] = start;
+                ends[i] = end;
+            }
+            DepthProfile<Integer> profile = DepthProfile.of(intervals, operations);
+            LongDepthProfile longProfile = LongDepthProfile.of(starts, ends);
+            List<DepthProfile.Step<Integer>> steps = profile.steps();
+            assertEquals(steps.size(), longProfile.steps());
+
+            int maxDepth = 0;
+            for (int i = 0; i < steps.size(); i++) {
+                DepthProfile.Step<Integer> step = steps.get(i);
+                assertEquals((long) step.range().start(), longProfile.start(i));
+                assertEquals((long) step.range().end(), longProfile.end(i));
+                assertEquals(step.depth(), longProfile.depth(i));
+                if (i > 0) {
+                    assertNotEquals(steps.get(i - 1).depth(), step.depth());
+                }
+                for (int point = step.range().start(); point < step.range().end(); point++) {
+                    int depth = 0;
+                    for (Interval<Integer> interval : intervals) {
+                        if (interval.start() <= point && point < interval.end()) {
+                            depth++;
+                        }
+                    }
+                    assertEquals(depth, step.depth());
+                    maxDepth = Math.max(maxDepth, depth);
+                }
+            }
+            assertEquals(maxDepth, profile.maxDepth());
+            assertArrayEquals(longProfile.durations(), profile.durations((start, end) -> end - start));
+        }
+    }
+}
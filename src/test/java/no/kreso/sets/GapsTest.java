@@ -0,0 +1,86 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GapsTest {
+
+    LocalDate feb01st = LocalDate.of(2025, 2, 1);
+    LocalDate feb05th = LocalDate.of(2025, 2, 5);
+    LocalDate feb10th = LocalDate.of(2025, 2, 10);
+    LocalDate feb11th = LocalDate.of(2025, 2, 11);
+    LocalDate feb20th = LocalDate.of(2025, 2, 20);
+    LocalDate feb28th = LocalDate.of(2025, 2, 28);
+
+    List<Interval<LocalDate>> bookings = List.of(
+            IntervalDefault.of(feb05th, feb10th),
+            IntervalDefault.of(feb05th, feb05th),
+            IntervalDefault.of(feb10th, feb11th),
+            IntervalDefault.of(feb20th, null));
+
+    @Test
+    public void complement() {
+        Operations<LocalDate> operations = OperationsDefault.unbound();
+        assertEquals(
+                List.of(IntervalDefault.of(feb01st, feb05th), IntervalDefault.of(feb11th, feb20th)),
+                Gaps.complement(bookings, IntervalDefault.of(feb01st, feb28th), operations).intervals());
+        assertEquals(
+                List.of(IntervalDefault.of(null, feb05th), IntervalDefault.of(feb11th, feb20th)),
+                Gaps.complement(bookings, IntervalDefault.of(null, null), operations).intervals());
+        assertTrue(Gaps.complement(bookings, IntervalDefault.of(feb05th, feb11th), operations).isEmpty());
+    }
+
+    @Test
+    public void complementLeftBound() {
+        Operations<LocalDate> operations = OperationsDefault.leftBound();
+        assertEquals(
+                List.of(IntervalDefault.of(feb01st, feb05th), IntervalDefault.of(feb11th, feb20th)),
+                Gaps.complement(bookings, IntervalDefault.of(feb01st, null), operations).intervals());
+    }
+
+    @Test
+    public void firstGap() {
+        Operations<LocalDate> operations = OperationsDefault.unbound();
+        Interval<LocalDate> february = IntervalDefault.of(feb01st, feb28th);
+        assertEquals(Optional.of(IntervalDefault.of(feb01st, feb05th)), firstGap(february, 4, operations));
+        assertEquals(Optional.of(IntervalDefault.of(feb11th, feb20th)), firstGap(february, 5, operations));
+        assertEquals(Optional.empty(), firstGap(february, 10, operations));
+        assertEquals(
+                Optional.of(IntervalDefault.of(null, feb05th)),
+                firstGap(IntervalDefault.of(null, feb28th), 1000, operations));
+    }
+
+    @Test
+    public void unsorted() {
+        List<Interval<LocalDate>> unsorted = List.of(
+                IntervalDefault.of(feb10th, feb11th),
+                IntervalDefault.of(feb01st, feb05th));
+        assertThrows(IllegalArgumentException.class,
+                () -> Gaps.complement(unsorted, IntervalDefault.of(null, null), OperationsDefault.unbound()));
+    }
+
+    private Optional<Interval<LocalDate>> firstGap(
+            Interval<LocalDate> bounds,
+            long days,
+            Operations<LocalDate> operations
+    ) {
+        return Gaps.firstGap(
+                bookings,
+                bounds,
+                days,
+                ChronoUnit.DAYS::between,
+                Comparator.naturalOrder(),
+                operations);
+    }
+}
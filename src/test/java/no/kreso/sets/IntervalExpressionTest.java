@@ -0,0 +1,118 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalExpressionTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void example() {
+        IntervalExpression<Integer> open = IntervalExpression.of(operations, List.of(
+                IntervalDefault.of(8, 12), IntervalDefault.of(13, 17)));
+        IntervalExpression<Integer> booked = IntervalExpression.of(operations, List.of(
+                IntervalDefault.of(9, 10), IntervalDefault.of(15, 16)));
+        IntervalExpression<Integer> available = open.difference(booked)
+                .intersection(IntervalExpression.of(operations, IntervalDefault.of(null, 16)));
+
+        assertEquals(List.of(
+                IntervalDefault.of(8, 9),
+                IntervalDefault.of(10, 12),
+                IntervalDefault.of(13, 15)), available.evaluate().intervals());
+        assertEquals(List.of(IntervalDefault.of(11, 12), IntervalDefault.of(13, 14)),
+                available.stream(IntervalDefault.of(11, 14)).toList());
+        assertFalse(available.iterator(IntervalDefault.of(5, 5)).hasNext());
+    }
+
+    @Test
+    public void shortCircuitsOnEmpty() {
+        IntervalExpression<Integer> empty = IntervalExpression.of(IntervalSet.empty(operations));
+        IntervalExpression<Integer> low = IntervalExpression.of(operations, IntervalDefault.of(null, 10));
+        IntervalExpression<Integer> high = IntervalExpression.of(operations, IntervalDefault.of(10, null));
+
+        assertTrue(empty.intersection(low).evaluate().isEmpty());
+        assertTrue(low.intersection(empty).evaluate().isEmpty());
+        assertTrue(empty.difference(low).evaluate().isEmpty());
+        assertTrue(low.intersection(high).evaluate().isEmpty());
+        assertTrue(low.union(high).intersection(empty).evaluate().isEmpty());
+        assertEquals(List.of(IntervalDefault.of(null, null)), low.union(high).evaluate().intervals());
+    }
+
+    @Test
+    public void printing() {
+        IntervalExpression<Integer> low = IntervalExpression.of(operations, IntervalDefault.of(null, 10));
+        IntervalExpression<Integer> high = IntervalExpression.of(operations, IntervalDefault.of(10, null));
+        IntervalExpression<Integer> mid = IntervalExpression.of(operations, IntervalDefault.of(5, 15));
+        String printed = low.union(high).intersection(mid).difference(low).toString();
+        assertEquals("(((" + low + " | " + high + ") & " + mid + ") - " + low + ")", printed);
+    }
+
+    /**
+     * Builds random expressions, and compares them against the same operations applied eagerly.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(43);
+        for (int round = 0; round < 500; round++) {
+            List<IntervalSet<Integer>> expected = new ArrayList<>();
+            List<IntervalExpression<Integer>> expressions = new ArrayList<>();
+            for (int leaf = 0; leaf < 6; leaf++) {
+                IntervalSet<Integer> set = randomSet(random);
+                expected.add(set);
+                expressions.add(IntervalExpression.of(set));
+            }
+            while (expected.size() > 1) {
+                int i = random.nextInt(expected.size() - 1);
+                IntervalSet<Integer> left = expected.remove(i);
+                IntervalSet<Integer> right = expected.remove(i);
+                IntervalExpression<Integer> leftExpression = expressions.remove(i);
+                IntervalExpression<Integer> rightExpression = expressions.remove(i);
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        expected.add(i, left.union(right));
+                        expressions.add(i, leftExpression.union(rightExpression));
+                    }
+                    case 1 -> {
+                        expected.add(i, left.intersection(right));
+                        expressions.add(i, leftExpression.intersection(rightExpression));
+                    }
+                    default -> {
+                        expected.add(i, left.difference(right));
+                        expressions.add(i, leftExpression.difference(rightExpression));
+                    }
+                }
+            }
+            IntervalSet<Integer> result = expected.get(0);
+            IntervalExpression<Integer> expression = expressions.get(0);
+            assertEquals(result.intervals(), expression.stream().toList(), expression::toString);
+
+            Interval<Integer> window = IntervalDefault.of(
+                    random.nextInt(10) == 0 ? null : random.nextInt(200),
+                    random.nextInt(10) == 0 ? null : random.nextInt(200));
+            assertEquals(result.intersection(IntervalSet.of(operations, window)), expression.evaluate(window),
+                    expression::toString);
+        }
+    }
+
+    private IntervalSet<Integer> randomSet(Random random) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        int count = random.nextInt(8);
+        for (int i = 0; i < count; i++) {
+            int start = random.nextInt(200);
+            intervals.add(IntervalDefault.of(
+                    random.nextInt(20) == 0 ? null : start,
+                    random.nextInt(20) == 0 ? null : start + random.nextInt(40)));
+        }
+        return IntervalSet.of(operations, intervals);
+    }
+}
@@ -0,0 +1,111 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalSetTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void normalization() {
+        IntervalSet<Integer> set = IntervalSet.of(operations, List.of(
+                IntervalDefault.of(10, 20),
+                IntervalDefault.of(1, 5),
+                IntervalDefault.of(5, 7),
+                IntervalDefault.of(15, 25),
+                IntervalDefault.of(30, 30)));
+        assertEquals(2, set.size());
+        assertEquals(IntervalDefault.of(1, 7), set.get(0));
+        assertEquals(IntervalDefault.of(10, 25), set.get(1));
+    }
+
+    @Test
+    public void membership() {
+        IntervalSet<Integer> set = IntervalSet.of(operations, List.of(
+                IntervalDefault.of(null, 0),
+                IntervalDefault.of(10, 20),
+                IntervalDefault.of(30, null)));
+        assertTrue(set.contains(-100));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(10));
+        assertFalse(set.contains(20));
+        assertTrue(set.contains(1000));
+        assertTrue(set.contains(IntervalDefault.of(12, 18)));
+        assertTrue(set.contains(IntervalDefault.of(40, null)));
+        assertFalse(set.contains(IntervalDefault.of(15, 35)));
+        assertTrue(set.contains(IntervalDefault.of(25, 25)));
+    }
+
+    @Test
+    public void complement() {
+        IntervalSet<Integer> set = IntervalSet.of(operations, List.of(
+                IntervalDefault.of(1, 5),
+                IntervalDefault.of(10, 20)));
+        IntervalSet<Integer> complement = set.complement();
+        assertEquals(List.of(
+                IntervalDefault.of(null, 1),
+                IntervalDefault.of(5, 10),
+                IntervalDefault.of(20, null)), complement.intervals());
+        assertEquals(set, complement.complement());
+        assertEquals(List.of(IntervalDefault.of(5, 10)), set.complement(IntervalDefault.of(3, 12)).intervals());
+    }
+
+    /**
+     * Compares the set operations against the same operations done point by point. Since the intervals are half-open
+     * and the values integers, the integer points are enough to tell two sets apart.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            IntervalSet<Integer> left = randomSet(random);
+            IntervalSet<Integer> right = randomSet(random);
+            IntervalSet<Integer> union = left.union(right);
+            IntervalSet<Integer> intersection = left.intersection(right);
+            IntervalSet<Integer> difference = left.difference(right);
+            IntervalSet<Integer> complement = left.complement();
+            for (int point = -2; point < 32; point++) {
+                boolean inLeft = left.contains(point);
+                boolean inRight = right.contains(point);
+                assertEquals(inLeft || inRight, union.contains(point));
+                assertEquals(inLeft && inRight, intersection.contains(point));
+                assertEquals(inLeft && !inRight, difference.contains(point));
+                assertEquals(!inLeft, complement.contains(point));
+            }
+            assertNormalized(union);
+            assertNormalized(intersection);
+            assertNormalized(difference);
+            assertNormalized(complement);
+        }
+    }
+
+    private IntervalSet<Integer> randomSet(Random random) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        int count = random.nextInt(6);
+        for (int i = 0; i < count; i++) {
+            Integer start = random.nextInt(10) == 0 ? null : random.nextInt(30);
+            Integer end = random.nextInt(10) == 0 ? null : random.nextInt(30);
+            intervals.add(IntervalDefault.of(start, end));
+        }
+        return IntervalSet.of(operations, intervals);
+    }
+
+    private void assertNormalized(IntervalSet<Integer> set) {
+        for (int i = 0; i < set.size(); i++) {
+            assertFalse(operations.isEmpty(set.get(i)));
+            if (i > 0) {
+                assertTrue(operations.compareStartToEnd(set.get(i).start(), set.get(i - 1).end()) > 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package no.kreso.sets;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentIntervalSetTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    /**
+     * Compares every version against an IntervalSet built from the same changes, and checks that old versions are
+     * left untouched.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(41);
+        PersistentIntervalSet<Integer> set = PersistentIntervalSet.empty(operations);
+        IntervalSet<Integer> expected = IntervalSet.empty(operations);
+        List<PersistentIntervalSet<Integer>> versions = new ArrayList<>();
+        List<List<Interval<Integer>>> snapshots = new ArrayList<>();
+        for (int change = 0; change < 1000; change++) {
+            Integer start = random.nextInt(50) == 0 ? null : random.nextInt(500);
+            Integer end = random.nextInt(50) == 0 ? null : random.nextInt(500);
+            Interval<Integer> interval = IntervalDefault.of(start, end);
+            if (random.nextInt(3) == 0) {
+                set = set.remove(interval);
+                expected = expected.difference(IntervalSet.of(operations, interval));
+            } else {
+                set = set.add(interval);
+                expected = expected.union(IntervalSet.of(operations, interval));
+            }
+            assertEquals(expected.intervals(), set.intervals());
+            versions.add(set);
+            snapshots.add(set.intervals());
+        }
+        for (int version = 0; version < versions.size(); version++) {
+            assertEquals(snapshots.get(version), versions.get(version).intervals());
+        }
+        assertEquals(expected.contains(250), set.contains(250));
+    }
+}
@@ -0,0 +1,122 @@
+package no.kreso.store;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.LongOperations;
+import no.kreso.operations.LongOperationsDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalArenaTest {
+
+    private final LongOperations operations = LongOperationsDefault.unbound();
+    private final Operations<Long> reference = OperationsDefault.unbound();
+
+    @Test
+    public void views() {
+        IntervalArena arena = new IntervalArena(operations, 2);
+        for (long i = 0; i < 10; i++) {
+            arena.add(10 * i, 10 * i + 5);
+        }
+        long unbound = arena.add(IntervalDefault.of(null, null));
+
+        assertEquals(11, arena.size());
+        assertEquals(LongOperations.NEGATIVE_INFINITY, arena.start(unbound));
+        IntervalArena.View view = arena.view(unbound);
+        assertNull(view.start());
+        assertNull(view.end());
+        assertEquals(IntervalDefault.of(70L, 75L), IntervalDefault.of(view.moveTo(7).start(), view.end()));
+        assertEquals("[70, 75)", view.toString());
+        assertTrue(reference.subsetOf(view, arena.view(unbound)));
+
+        arena.set(7, 71, 72);
+        assertEquals(72L, view.end());
+        assertThrows(IndexOutOfBoundsException.class, () -> arena.start(11));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.moveTo(-1));
+
+        arena.clear();
+        assertEquals(0, arena.size());
+        assertEquals(0, arena.add(1, 2));
+    }
+
+    /**
+     * The union with an empty interval is the view itself, which follows the view when it moves, unlike its snapshot.
+     */
+    @Test
+    public void snapshots() {
+        IntervalArena arena = new IntervalArena(operations, 2);
+        arena.add(0, 5);
+        arena.add(10, 15);
+        IntervalArena.View view = arena.view(0);
+        Interval<Long> union = reference.union(view, IntervalDefault.of(3L, 3L));
+        assertSame(view, union);
+        Interval<Long> snapshot = view.snapshot();
+
+        view.moveTo(1);
+        assertEquals(10L, union.start());
+        assertEquals(IntervalDefault.of(0L, 5L), snapshot);
+    }
+
+    @Test
+    public void release() {
+        try (IntervalArena arena = new IntervalArena(operations, 2)) {
+            for (long i = 0; i < 10; i++) {
+                arena.add(i, i + 1);
+            }
+            assertEquals(12, arena.capacity());
+            arena.clear();
+            assertEquals(0, arena.size());
+            assertEquals(12, arena.capacity());
+
+            arena.add(1, 2);
+            arena.release();
+            assertEquals(0, arena.size());
+            assertEquals(0, arena.capacity());
+            assertThrows(IndexOutOfBoundsException.class, () -> arena.start(0));
+            assertEquals(0, arena.add(3, 4));
+            assertEquals(4, arena.capacity());
+            assertEquals(4, arena.end(0));
+        }
+    }
+
+    /**
+     * Compares the operations of the arena, across chunks, against OperationsDefault.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(47);
+        IntervalArena arena = new IntervalArena(operations, 4);
+        List<Interval<Long>> intervals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Interval<Long> interval = IntervalDefault.of(
+                    random.nextInt(10) == 0 ? null : (long) random.nextInt(100),
+                    random.nextInt(10) == 0 ? null : (long) random.nextInt(100));
+            intervals.add(interval);
+            assertEquals(i, arena.add(interval));
+        }
+        long target = arena.add(0, 0);
+        IntervalArena.View result = arena.view(target);
+        for (int n = 0; n < 5000; n++) {
+            int left = random.nextInt(intervals.size());
+            int right = random.nextInt(intervals.size());
+            Interval<Long> fst = intervals.get(left);
+            Interval<Long> snd = intervals.get(right);
+
+            assertEquals(reference.isEmpty(fst), arena.isEmpty(left));
+            assertEquals(reference.subsetOf(fst, snd), arena.subsetOf(left, right));
+            assertEquals(!reference.isEmpty(reference.intersection(fst, snd)), arena.overlaps(left, right));
+
+            arena.intersection(left, right, target);
+            assertEquals(reference.intersection(fst, snd), IntervalDefault.of(result.start(), result.end()));
+            arena.union(left, right, target);
+            assertEquals(reference.union(fst, snd), IntervalDefault.of(result.start(), result.end()));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package no.kreso.store;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.LongOperations;
+import no.kreso.operations.LongOperationsDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedIntervalStoreTest {
+
+    private final LongOperations operations = LongOperationsDefault.unbound();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void queries() throws IOException {
+        Path path = directory.resolve("intervals.bin");
+        MappedIntervalStore.write(path, List.of(
+                IntervalDefault.of(10L, 20L),
+                IntervalDefault.of(null, 5L),
+                IntervalDefault.of(15L, null),
+                IntervalDefault.of(30L, 30L)), operations);
+        try (MappedIntervalStore store = MappedIntervalStore.open(path)) {
+            assertEquals(3, store.size());
+            assertEquals(LongOperations.NEGATIVE_INFINITY, store.start(0));
+            assertEquals(LongOperations.POSITIVE_INFINITY, store.end(2));
+
+            List<Interval<Long>> found = new ArrayList<>();
+            store.forEachContaining(17, (index, start, end) ->
+                    found.add(IntervalDefault.of(operations.decodeStart(start), operations.decodeEnd(end))));
+            assertEquals(List.of(IntervalDefault.of(15L, null), IntervalDefault.of(10L, 20L)), found);
+
+            assertEquals(1, store.countOverlapping(0, 10));
+            assertEquals(3, store.countOverlapping(LongOperations.NEGATIVE_INFINITY, LongOperations.POSITIVE_INFINITY));
+            assertEquals(0, store.countOverlapping(7, 7));
+        }
+    }
+
+    @Test
+    public void invalidFile() throws IOException {
+        Path path = directory.resolve("other.bin");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> MappedIntervalStore.open(path));
+    }
+
+    /**
+     * A single unbounded interval must not make queries read the whole store, as a running maximum of the upper
+     * bounds would.
+     */
+    @Test
+    public void unboundedInterval() throws IOException {
+        int count = 100_000;
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        for (int i = 1; i < count; i++) {
+            starts[i] = 10L * i;
+            ends[i] = 10L * i + 5;
+        }
+        ends[0] = LongOperations.POSITIVE_INFINITY;
+        Path path = directory.resolve("unbounded.bin");
+        MappedIntervalStore.write(path, starts, ends);
+        try (MappedIntervalStore store = MappedIntervalStore.open(path)) {
+            List<Long> found = new ArrayList<>();
+            int visited = store.query(500_002, 500_002, (index, start, end) -> found.add(start));
+            assertEquals(List.of(500_000L, 0L), found);
+            assertTrue(visited < 200, "Visited " + visited + " entries");
+
+            visited = store.query(LongOperations.POSITIVE_INFINITY - 1, LongOperations.POSITIVE_INFINITY - 1,
+                    (index, start, end) -> found.add(start));
+            assertEquals(List.of(500_000L, 0L, 0L), found);
+            assertTrue(visited < 200, "Visited " + visited + " entries");
+            assertEquals(2, store.countOverlapping(999_990, 1_000_000));
+        }
+    }
+
+    @Test
+    public void randomized() throws IOException {
+        Random random = new Random(5);
+        int count = 20_000;
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = random.nextInt(100_000);
+            ends[i] = starts[i] + random.nextInt(random.nextInt(10) == 0 ? 50_000 : 100) - 5;
+        }
+        Path path = directory.resolve("random.bin");
+        MappedIntervalStore.write(path, starts, ends);
+        try (MappedIntervalStore store = MappedIntervalStore.open(path)) {
+            for (int query = 0; query < 200; query++) {
+                long from = random.nextInt(100_000);
+                long to = from + random.nextInt(1_000);
+                int expected = 0;
+                for (int i = 0; i < count; i++) {
+                    if (starts[i] < ends[i] && starts[i] < to && from < ends[i] && from < to) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, store.countOverlapping(from, to));
+            }
+        }
+    }
+}
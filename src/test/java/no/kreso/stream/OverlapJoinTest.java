@@ -0,0 +1,90 @@
+package no.kreso.stream;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverlapJoinTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void join() {
+        List<Interval<Integer>> contracts = List.of(
+                IntervalDefault.of(null, 5),
+                IntervalDefault.of(3, 8),
+                IntervalDefault.of(10, null));
+        List<Interval<Integer>> prices = List.of(
+                IntervalDefault.of(0, 4),
+                IntervalDefault.of(4, 10),
+                IntervalDefault.of(20, 30));
+        List<Overlap<Integer, Interval<Integer>, Interval<Integer>>> overlaps =
+                OverlapJoin.join(contracts.stream(), prices.stream(), operations).toList();
+        assertEquals(5, overlaps.size());
+        assertTrue(overlaps.contains(new Overlap<>(contracts.get(0), prices.get(0), IntervalDefault.of(0, 4))));
+        assertTrue(overlaps.contains(new Overlap<>(contracts.get(0), prices.get(1), IntervalDefault.of(4, 5))));
+        assertTrue(overlaps.contains(new Overlap<>(contracts.get(1), prices.get(0), IntervalDefault.of(3, 4))));
+        assertTrue(overlaps.contains(new Overlap<>(contracts.get(1), prices.get(1), IntervalDefault.of(4, 8))));
+        assertTrue(overlaps.contains(new Overlap<>(contracts.get(2), prices.get(2), IntervalDefault.of(20, 30))));
+    }
+
+    @Test
+    public void unsortedInput() {
+        List<Interval<Integer>> unsorted = List.of(IntervalDefault.of(5, 10), IntervalDefault.of(1, 3));
+        List<Interval<Integer>> other = List.of(IntervalDefault.of(0, 100));
+        assertThrows(IllegalStateException.class,
+                () -> OverlapJoin.join(unsorted.stream(), other.stream(), operations).toList());
+    }
+
+    @Test
+    public void randomized() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            List<Interval<Integer>> left = randomSorted(random);
+            List<Interval<Integer>> right = randomSorted(random);
+            Set<String> expected = new HashSet<>();
+            for (Interval<Integer> l : left) {
+                for (Interval<Integer> r : right) {
+                    Interval<Integer> intersection = operations.intersection(l, r);
+                    if (!operations.isEmpty(intersection)) {
+                        expected.add(l + " " + r + " " + intersection);
+                    }
+                }
+            }
+            List<String> actual = OverlapJoin.join(left.stream(), right.stream(), operations)
+                    .map(overlap -> overlap.left() + " " + overlap.right() + " " + overlap.intersection())
+                    .toList();
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected, actual.stream().collect(Collectors.toSet()));
+        }
+    }
+
+    /**
+     * Intervals are made distinct by their index, so that every expected pair can be told apart.
+     */
+    private List<Interval<Integer>> randomSorted(Random random) {
+        List<Interval<Integer>> intervals = new ArrayList<>();
+        int count = random.nextInt(20);
+        for (int i = 0; i < count; i++) {
+            Integer start = random.nextInt(15) == 0 ? null : random.nextInt(50);
+            Integer end = random.nextInt(15) == 0 ? null : random.nextInt(50);
+            intervals.add(new Indexed(start, end, i));
+        }
+        intervals.sort(Comparator.comparing(Interval::start, operations::compareStart));
+        return intervals;
+    }
+
+    private record Indexed(Integer start, Integer end, int index) implements Interval<Integer> { }
+}
@@ -0,0 +1,73 @@
+package no.kreso.stream;
+
+import no.kreso.interval.Interval;
+import no.kreso.interval.IntervalDefault;
+import no.kreso.operations.Operations;
+import no.kreso.operations.OperationsDefault;
+import no.kreso.sets.IntervalSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingCoalescerTest {
+
+    private final Operations<Integer> operations = OperationsDefault.unbound();
+
+    @Test
+    public void watermark() {
+        List<Interval<Integer>> emitted = new ArrayList<>();
+        List<Interval<Integer>> late = new ArrayList<>();
+        StreamingCoalescer<Integer> coalescer = new StreamingCoalescer<>(operations, emitted::add, late::add);
+        coalescer.accept(IntervalDefault.of(5, 10));
+        coalescer.accept(IntervalDefault.of(0, 3));
+        coalescer.accept(IntervalDefault.of(3, 4));
+        coalescer.accept(IntervalDefault.of(8, 12));
+        coalescer.accept(IntervalDefault.of(20, null));
+        assertEquals(3, coalescer.pending());
+
+        coalescer.advanceWatermark(4);
+        assertEquals(List.of(), emitted);
+        coalescer.advanceWatermark(5);
+        assertEquals(List.of(IntervalDefault.of(0, 4)), emitted);
+
+        coalescer.accept(IntervalDefault.of(12, 15));
+        coalescer.accept(IntervalDefault.of(4, 6));
+        assertEquals(List.of(IntervalDefault.of(4, 6)), late);
+
+        coalescer.advanceWatermark(16);
+        coalescer.advanceWatermark(1);
+        assertEquals(List.of(IntervalDefault.of(0, 4), IntervalDefault.of(5, 15)), emitted);
+        coalescer.flush();
+        assertEquals(IntervalDefault.of(20, null), emitted.get(2));
+        assertEquals(0, coalescer.pending());
+    }
+
+    /**
+     * Every interval starts within a lateness window after the watermark. The emitted intervals must be the coalesced
+     * input, while only the intervals within the window are kept.
+     */
+    @Test
+    public void randomized() {
+        Random random = new Random(11);
+        int lateness = 20;
+        for (int round = 0; round < 100; round++) {
+            List<Interval<Integer>> input = new ArrayList<>();
+            List<Interval<Integer>> emitted = new ArrayList<>();
+            StreamingCoalescer<Integer> coalescer = new StreamingCoalescer<>(operations, emitted::add, interval -> fail());
+            for (int time = 0; time < 1000; time++) {
+                int start = time + random.nextInt(lateness);
+                Interval<Integer> interval = IntervalDefault.of(start, start + random.nextInt(8));
+                input.add(interval);
+                coalescer.accept(interval);
+                coalescer.advanceWatermark(time);
+                assertTrue(coalescer.pending() <= lateness);
+            }
+            coalescer.flush();
+            assertEquals(IntervalSet.of(operations, input).intervals(), emitted);
+        }
+    }
+}